@@ -0,0 +1,296 @@
+package com.sunnysuperman.sqlgenerator.idea;
+
+import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.MysqlType;
+import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.TableColumn;
+import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.TableDefinition;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 生成列式分析库(ClickHouse)建表语句，用于将MySQL表同步到分析库做报表查询。
+ * 列类型与MySQL中存储的值保持一致(日期为毫秒数，枚举为序号)，同步时无需转换；
+ * 通过columnDefinition声明的列按声明的MySQL类型转换，无法转换的列不建立，并在语句开头注明。
+ * 表按主键排序去重；只有显式指定的时间字段才用于分区及排序，该字段须写入后不再变化(如创建时间)，
+ * 因为ReplacingMergeTree只合并排序键相同且位于同一分区的行，时间字段被更新后新旧两行会同时保留。
+ */
+public class ColumnarSQLGenerator {
+
+    // columnDefinition中的列：`name` TYPE(args) ...
+    private static final Pattern DECLARED_COLUMN_PATTERN = Pattern.compile("[`\"]?(\\w+)[`\"]?\\s+(\\w+)\\s*(?:\\(([^)]*)\\))?(.*)");
+    // columnDefinition中以这些关键字开头的行为索引或约束
+    private static final List<String> keyKeywords = Arrays.asList("PRIMARY", "UNIQUE", "FULLTEXT", "SPATIAL", "KEY", "INDEX",
+            "CONSTRAINT", "FOREIGN", "CHECK");
+    private static final List<String> stringTypes = Arrays.asList("CHAR", "VARCHAR", "TINYTEXT", "TEXT", "MEDIUMTEXT",
+            "LONGTEXT", "JSON", "ENUM", "VARBINARY", "TINYBLOB", "BLOB", "MEDIUMBLOB", "LONGBLOB", "TIME");
+
+    private static class Column {
+        private final TableColumn column;
+        private final String name;
+        // ClickHouse类型，null表示无法转换
+        private final String type;
+        private final boolean nullable;
+        // 声明为DATETIME等日期类型，否则日期为毫秒数
+        private final boolean declaredDate;
+
+        private Column(TableColumn column, String name, String type, boolean nullable, boolean declaredDate) {
+            this.column = column;
+            this.name = name;
+            this.type = type;
+            this.nullable = nullable;
+            this.declaredDate = declaredDate;
+        }
+
+        private boolean isDate() {
+            return isDeclared(column) ? declaredDate : SQLGenerator.isDateType(column.getJavaType());
+        }
+    }
+
+    protected ColumnarSQLGenerator() {
+    }
+
+    /**
+     * @param def         表定义
+     * @param timeColumns 用于分区及排序的时间字段名(Java字段名或列名)，取表中第一个匹配的日期字段；没有匹配时只按主键排序
+     */
+    public static String generate(TableDefinition def, List<String> timeColumns) {
+        List<Column> columns = new ArrayList<>();
+        StringBuilder sql = new StringBuilder();
+        for (TableColumn column : def.getColumns()) {
+            Column c = toColumn(column, def);
+            if (c == null) {
+                continue;
+            }
+            if (c.type == null) {
+                sql.append("-- 列`").append(c.name).append("`声明的类型无法转换为ClickHouse类型，未包含在分析库中: ")
+                        .append(declaredColumnLine(column)).append('\n');
+                continue;
+            }
+            columns.add(c);
+        }
+        Column idColumn = columns.stream().filter(i -> i.column.isPrimary()).findAny().orElse(null);
+        Column versionColumn = columns.stream().filter(i -> i.column.isVersionControl()).findAny().orElse(null);
+        Column timeColumn = columns.stream().filter(i -> !i.column.isPrimary()).filter(Column::isDate)
+                .filter(i -> timeColumns.stream().anyMatch(name -> name.equalsIgnoreCase(i.column.getJavaName())
+                        || name.equalsIgnoreCase(i.name)))
+                .findFirst().orElse(null);
+
+        sql.append("CREATE TABLE `").append(def.getName()).append("` (\n");
+        char blank = ' ';
+        String indent = "  ";
+        for (int i = 0; i < columns.size(); i++) {
+            Column column = columns.get(i);
+            sql.append(indent).append('`').append(column.name).append('`');
+            // 排序键不能为Nullable，同步时NULL写为默认值0
+            boolean nullable = column.nullable && column != idColumn && column != timeColumn;
+            sql.append(blank).append(nullable ? "Nullable(" + column.type + ")" : column.type);
+            sql.append(blank).append("COMMENT '").append(StringUtil.or(column.column.getComment(), StringUtil.EMPTY)).append('\'');
+            sql.append(blank).append("CODEC(").append(codec(column, column == idColumn || column == timeColumn)).append(')');
+            sql.append(i < columns.size() - 1 ? ",\n" : "\n");
+        }
+        sql.append(')');
+
+        // 按主键去重，保留版本号最大的一行
+        sql.append(" ENGINE = ReplacingMergeTree(");
+        if (versionColumn != null) {
+            sql.append('`').append(versionColumn.name).append('`');
+        }
+        sql.append(")\n");
+        if (timeColumn != null) {
+            String time = '`' + timeColumn.name + '`';
+            sql.append("PARTITION BY toYYYYMM(").append(timeColumn.declaredDate ? time : "fromUnixTimestamp64Milli(" + time + ")")
+                    .append(")\n");
+        }
+        sql.append("ORDER BY ");
+        sql.append(timeColumn == null && idColumn == null ? "tuple(" : "(");
+        if (timeColumn != null) {
+            sql.append('`').append(timeColumn.name).append('`');
+            if (idColumn != null) {
+                sql.append(", ");
+            }
+        }
+        if (idColumn != null) {
+            sql.append('`').append(idColumn.name).append('`');
+        }
+        sql.append(")\n");
+        sql.append("COMMENT '").append(StringUtil.or(def.getComment(), StringUtil.EMPTY)).append("';");
+        return sql.toString();
+    }
+
+    /**
+     * @return 分析库中的列；只声明了索引的字段在MySQL中没有对应的列，返回null
+     */
+    private static Column toColumn(TableColumn column, TableDefinition def) {
+        if (!isDeclared(column)) {
+            return new Column(column, SQLGenerator.columnName(column, def), columnType(column), column.isNullable(), false);
+        }
+        String line = declaredColumnLine(column);
+        if (line == null) {
+            return null;
+        }
+        Matcher matcher = DECLARED_COLUMN_PATTERN.matcher(line);
+        if (!matcher.matches()) {
+            return new Column(column, SQLGenerator.columnName(column, def), null, true, false);
+        }
+        String type = matcher.group(2).toUpperCase(Locale.ROOT);
+        String options = matcher.group(4).toUpperCase(Locale.ROOT);
+        boolean nullable = !options.contains("NOT NULL") && !options.contains("PRIMARY KEY");
+        boolean date = type.equals("DATETIME") || type.equals("TIMESTAMP") || type.equals("DATE");
+        return new Column(column, matcher.group(1), declaredType(type, matcher.group(3), options.contains("UNSIGNED")),
+                nullable, date);
+    }
+
+    private static boolean isDeclared(TableColumn column) {
+        return column.getColumnDefinition() != null && column.getColumnDefinition().length > 0;
+    }
+
+    // columnDefinition中定义列的行
+    private static String declaredColumnLine(TableColumn column) {
+        for (String line : column.getColumnDefinition()) {
+            String text = line.trim();
+            if (text.endsWith(",")) {
+                text = text.substring(0, text.length() - 1).trim();
+            }
+            if (!text.isEmpty() && !keyKeywords.contains(text.split("[\\s(]+", 2)[0].toUpperCase(Locale.ROOT))) {
+                return text;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 声明的MySQL类型对应的ClickHouse类型，无法转换时返回null
+     */
+    private static String declaredType(String type, String args, boolean unsigned) {
+        String prefix = unsigned ? "U" : StringUtil.EMPTY;
+        switch (type) {
+            case "BIGINT":
+                return prefix + "Int64";
+            case "INT":
+            case "INTEGER":
+            case "MEDIUMINT":
+                return prefix + "Int32";
+            case "SMALLINT":
+                return prefix + "Int16";
+            case "TINYINT":
+                return prefix + "Int8";
+            case "BIT":
+            case "BOOL":
+            case "BOOLEAN":
+                return "UInt8";
+            case "DECIMAL":
+            case "NUMERIC":
+                return "Decimal(" + (args != null ? args.replaceAll("\\s", StringUtil.EMPTY).replace(",", ", ") : "10, 0") + ")";
+            case "DOUBLE":
+            case "REAL":
+                return "Float64";
+            case "FLOAT":
+                return "Float32";
+            case "DATETIME":
+            case "TIMESTAMP":
+                return "DateTime64(" + (args != null ? args.trim() : "0") + ")";
+            case "DATE":
+                return "Date32";
+            case "YEAR":
+                return "UInt16";
+            case "BINARY":
+                return "FixedString(" + (args != null ? args.trim() : "1") + ")";
+            default:
+                return stringTypes.contains(type) ? "String" : null;
+        }
+    }
+
+    private static String columnType(TableColumn column) {
+        MysqlType sqlType = SQLGenerator.sqlType(column);
+        switch (sqlType) {
+            case BIGINT:
+                return "Int64";
+            case INT:
+                return "Int32";
+            case SMALLINT:
+                return "Int16";
+            case TINYINT:
+                return enumType(column);
+            case BIT:
+                return "UInt8";
+            case DOUBLE:
+                return "Float64";
+            case FLOAT:
+                return "Float32";
+            case DECIMAL:
+                return "Decimal(" + SQLGenerator.getFloatLength(sqlType) + ", " + column.getPrecision() + ")";
+            case BINARY:
+                return "FixedString(16)";
+            default:
+                return "String";
+        }
+    }
+
+    // 枚举以Enum8存储，取值与MySQL中的序号一致，查询时可直接按名称过滤
+    private static String enumType(TableColumn column) {
+        String[] constants = column.getEnumConstants();
+        if (constants == null || constants.length == 0 || constants.length > Byte.MAX_VALUE + 1) {
+            return "Int8";
+        }
+        StringBuilder type = new StringBuilder("Enum8(");
+        for (int i = 0; i < constants.length; i++) {
+            if (i > 0) {
+                type.append(", ");
+            }
+            type.append('\'').append(constants[i]).append("' = ").append(i);
+        }
+        return type.append(')').toString();
+    }
+
+    /**
+     * 按类型选择压缩编码：有序的时间/主键列用差值编码，其它整数用T64，浮点用Gorilla，字符串用较高等级的ZSTD
+     *
+     * @param sortKey 是否为排序键中的列，排序后相邻值差值很小
+     */
+    private static String codec(Column column, boolean sortKey) {
+        if (isDeclared(column.column)) {
+            return declaredCodec(column.type, sortKey);
+        }
+        TableColumn tableColumn = column.column;
+        MysqlType sqlType = SQLGenerator.sqlType(tableColumn);
+        switch (sqlType) {
+            case BIGINT:
+            case INT:
+            case SMALLINT:
+                if (sortKey) {
+                    return SQLGenerator.isDateType(tableColumn.getJavaType()) ? "DoubleDelta, ZSTD(1)" : "Delta, ZSTD(1)";
+                }
+                return "T64, ZSTD(1)";
+            case TINYINT:
+                return tableColumn.getEnumConstants() != null && tableColumn.getEnumConstants().length > 0 ? "ZSTD(1)" : "T64, LZ4";
+            case BIT:
+                return "T64, LZ4";
+            case DOUBLE:
+            case FLOAT:
+                return "Gorilla, ZSTD(1)";
+            case DECIMAL:
+            case BINARY:
+                return "ZSTD(1)";
+            default:
+                return "ZSTD(3)";
+        }
+    }
+
+    // 声明的列按转换后的ClickHouse类型选择压缩编码
+    private static String declaredCodec(String type, boolean sortKey) {
+        if (type.startsWith("DateTime") || type.startsWith("Date")) {
+            return sortKey ? "DoubleDelta, ZSTD(1)" : "Delta, ZSTD(1)";
+        }
+        if (type.startsWith("Int") || type.startsWith("UInt")) {
+            return sortKey ? "Delta, ZSTD(1)" : "T64, ZSTD(1)";
+        }
+        if (type.startsWith("Float")) {
+            return "Gorilla, ZSTD(1)";
+        }
+        return type.equals("String") ? "ZSTD(3)" : "ZSTD(1)";
+    }
+}
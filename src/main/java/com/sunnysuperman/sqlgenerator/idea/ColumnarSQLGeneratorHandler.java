@@ -0,0 +1,14 @@
+package com.sunnysuperman.sqlgenerator.idea;
+
+import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.TableDefinition;
+
+/**
+ * 生成列式分析库(ClickHouse)建表语句
+ */
+public class ColumnarSQLGeneratorHandler extends SQLGeneratorHandler {
+
+    @Override
+    protected String generate(TableDefinition def) {
+        return ColumnarSQLGenerator.generate(def, SQLGeneratorSettings.getColumnarTimeColumns());
+    }
+}
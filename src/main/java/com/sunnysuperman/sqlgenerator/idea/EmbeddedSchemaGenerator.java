@@ -0,0 +1,248 @@
+package com.sunnysuperman.sqlgenerator.idea;
+
+import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.MysqlType;
+import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.TableColumn;
+import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.TableDefinition;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 生成嵌入式测试库(H2)建表脚本。所有表合并为一个脚本，测试启动时通过一次RUNSCRIPT加载；
+ * 脚本附带内容哈希，测试可据此判断缓存的测试库是否需要重建。
+ */
+public class EmbeddedSchemaGenerator {
+
+    public static final String HASH_PREFIX = "-- schema-hash: ";
+
+    // `name` TYPE ...，字段名之后为类型
+    private static final Pattern COLUMN_LINE_PATTERN = Pattern.compile("(\"[^\"]+\"|\\w+)\\s+(\\w+)(.*)");
+    private static final Pattern PRIMARY_KEY_PATTERN = Pattern.compile("\\bPRIMARY\\s+KEY\\b");
+    // 索引中的一列：`name`、name，可带前缀长度(H2不支持，去掉)及排序方向
+    private static final Pattern KEY_COLUMN_PATTERN = Pattern.compile("(?i)(\"[^\"]+\"|\\w+)(?:\\s*\\(\\d+\\))?(\\s+(?:ASC|DESC))?");
+    // H2中没有对应类型
+    private static final List<String> unsupportedTypes = Arrays.asList("SET", "POINT", "LINESTRING", "POLYGON",
+            "MULTIPOINT", "MULTILINESTRING", "MULTIPOLYGON", "GEOMETRYCOLLECTION");
+    // 不影响测试的MySQL专有选项，部分H2无法解析
+    private static final List<Pattern> mysqlOnlyOptions = Arrays.asList(
+            Pattern.compile("(?i)\\s+COMMENT\\s+'(?:[^']|'')*'"),
+            Pattern.compile("(?i)\\s+(?:CHARACTER\\s+SET|CHARSET)\\s+\\w+"),
+            Pattern.compile("(?i)\\s+COLLATE\\s+\\w+"),
+            Pattern.compile("(?i)\\s+ZEROFILL\\b"));
+
+    protected EmbeddedSchemaGenerator() {
+    }
+
+    /**
+     * 生成单表的建表及建索引语句。不带注释、存储引擎等MySQL专有选项，以加快加载。
+     * 字段声明的columnDefinition逐行转换为H2语法，无法转换时抛出异常，而不是生成与MySQL不一致的表
+     */
+    public static String generate(TableDefinition def) throws SQLGenerationException {
+        TableColumn idColumn = def.getColumns().stream().filter(TableColumn::isPrimary).findAny().orElse(null);
+        List<String> lines = new ArrayList<>();
+        // H2的索引名在schema内唯一，在建表语句之后单独建立并加上表名前缀
+        List<String> indexes = new ArrayList<>();
+        boolean declaredPrimaryKey = false;
+        for (TableColumn column : def.getColumns()) {
+            String[] columnDefinition = column.getColumnDefinition();
+            if (columnDefinition != null && columnDefinition.length > 0) {
+                for (String line : columnDefinition) {
+                    declaredPrimaryKey |= translateDeclaredLine(line, def, lines, indexes);
+                }
+                continue;
+            }
+            StringBuilder line = new StringBuilder();
+            line.append(quote(SQLGenerator.columnName(column, def))).append(' ').append(columnType(column));
+            // H2中IDENTITY须在NOT NULL等约束之前
+            if (column.isAutoIncrement()) {
+                line.append(" GENERATED BY DEFAULT AS IDENTITY");
+            }
+            if (!column.isNullable()) {
+                line.append(" NOT NULL");
+            }
+            lines.add(line.toString());
+        }
+        if (idColumn != null && !declaredPrimaryKey) {
+            lines.add("PRIMARY KEY (" + quote(SQLGenerator.columnName(idColumn, def)) + ")");
+        }
+        for (TableColumn column : SQLGenerator.relationIndexColumns(def)) {
+            indexes.add(createIndex(def, false, SQLGenerator.relationIndexName(column, def),
+                    quote(SQLGenerator.columnName(column, def))));
+        }
+        StringBuilder sql = new StringBuilder();
+        sql.append("CREATE TABLE ").append(quote(def.getName())).append(" (\n  ");
+        sql.append(String.join(",\n  ", lines)).append("\n);");
+        for (String index : indexes) {
+            sql.append('\n').append(index);
+        }
+        return sql.toString();
+    }
+
+    /**
+     * 将所有建表语句合并为一个脚本，首行为内容哈希
+     */
+    public static String bundle(List<String> sqlList) {
+        String body = String.join("\n\n", sqlList) + "\n";
+        return HASH_PREFIX + hash(body) + "\n"
+                + "-- 由sql-generator生成，请勿手动修改。建议连接串: jdbc:h2:mem:test;MODE=MySQL;DATABASE_TO_LOWER=TRUE\n\n"
+                + body;
+    }
+
+    /**
+     * 脚本内容的SHA-256哈希(十六进制)
+     */
+    public static String hash(String content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StringUtil.UTF8_CHARSET));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String columnType(TableColumn column) {
+        MysqlType sqlType = SQLGenerator.sqlType(column);
+        switch (sqlType) {
+            case BIT:
+                return "BOOLEAN";
+            case DOUBLE:
+                return "DOUBLE PRECISION";
+            case FLOAT:
+                return "REAL";
+            case DECIMAL:
+                return "DECIMAL(" + SQLGenerator.getFloatLength(sqlType) + ", " + column.getPrecision() + ")";
+            case VARCHAR:
+            case CHAR:
+            case BINARY:
+                return sqlType.name() + "(" + SQLGenerator.getColumnLength(column) + ")";
+            case JSON:
+                // H2的JSON类型绑定字符串参数时会当作JSON字符串值，与MySQL行为不一致，故以字符串存储
+                return "VARCHAR";
+            default:
+                return sqlType.name();
+        }
+    }
+
+    /**
+     * 将columnDefinition中的一行转换为H2语法，字段及主键、外键等约束加入建表语句，索引转为单独的建索引语句
+     *
+     * @return 该行是否声明了主键
+     */
+    private static boolean translateDeclaredLine(String line, TableDefinition def, List<String> lines, List<String> indexes)
+            throws SQLGenerationException {
+        String text = line.trim();
+        if (text.endsWith(",")) {
+            text = text.substring(0, text.length() - 1).trim();
+        }
+        if (text.isEmpty()) {
+            return false;
+        }
+        // 与MySQL建表语句一致，双引号视为字符串，反引号转为H2的标识符引号
+        text = text.replace('"', '\'').replace('`', '"');
+        String upper = text.toUpperCase(Locale.ROOT);
+        String keyword = upper.split("[\\s(]+", 2)[0];
+        switch (keyword) {
+            case "PRIMARY":
+                lines.add("PRIMARY KEY (" + keyColumns(text, line, def) + ")");
+                return true;
+            case "CONSTRAINT":
+            case "FOREIGN":
+            case "CHECK":
+                lines.add(text);
+                return PRIMARY_KEY_PATTERN.matcher(upper).find();
+            case "UNIQUE":
+            case "KEY":
+            case "INDEX":
+                indexes.add(createIndex(def, keyword.equals("UNIQUE"), keyName(text, line, def), keyColumns(text, line, def)));
+                return false;
+            case "FULLTEXT":
+            case "SPATIAL":
+                // 只影响MATCH等MySQL专有查询，H2中无对应索引
+                indexes.add("-- H2不支持" + keyword + "索引，已忽略: " + line.trim());
+                return false;
+            default:
+                lines.add(translateColumnLine(text, line, def));
+                return PRIMARY_KEY_PATTERN.matcher(upper).find();
+        }
+    }
+
+    private static String translateColumnLine(String text, String line, TableDefinition def) throws SQLGenerationException {
+        Matcher matcher = COLUMN_LINE_PATTERN.matcher(text);
+        if (!matcher.matches()) {
+            throw untranslatable(def, line);
+        }
+        String type = matcher.group(2).toUpperCase(Locale.ROOT);
+        if (unsupportedTypes.contains(type)) {
+            throw untranslatable(def, line);
+        }
+        // JSON与自动生成的字段一样以字符串存储
+        String column = quoteIdentifier(matcher.group(1)) + ' ' + (type.equals("JSON") ? "VARCHAR" : matcher.group(2)) + matcher.group(3);
+        for (Pattern pattern : mysqlOnlyOptions) {
+            column = pattern.matcher(column).replaceAll(StringUtil.EMPTY);
+        }
+        return column;
+    }
+
+    private static String keyName(String text, String line, TableDefinition def) throws SQLGenerationException {
+        for (String token : text.substring(0, text.indexOf('(')).trim().split("\\s+")) {
+            String upper = token.toUpperCase(Locale.ROOT);
+            if (upper.equals("USING")) {
+                break;
+            }
+            if (!upper.equals("UNIQUE") && !upper.equals("KEY") && !upper.equals("INDEX")) {
+                return token.replace("\"", StringUtil.EMPTY);
+            }
+        }
+        // 与MySQL一致，未命名的索引以首列命名
+        String columns = keyColumns(text, line, def);
+        return columns.substring(1, columns.indexOf('"', 1));
+    }
+
+    /**
+     * 索引的列，去掉H2不支持的前缀长度(如 `name`(10))，未加引号的列名加上引号
+     */
+    private static String keyColumns(String text, String line, TableDefinition def) throws SQLGenerationException {
+        int open = text.indexOf('(');
+        int close = text.lastIndexOf(')');
+        if (open < 0 || close < open) {
+            throw untranslatable(def, line);
+        }
+        List<String> columns = new ArrayList<>();
+        for (String part : text.substring(open + 1, close).split(",")) {
+            Matcher matcher = KEY_COLUMN_PATTERN.matcher(part.trim());
+            if (!matcher.matches()) {
+                throw untranslatable(def, line);
+            }
+            columns.add(quoteIdentifier(matcher.group(1)) + StringUtil.or(matcher.group(2), StringUtil.EMPTY));
+        }
+        return String.join(", ", columns);
+    }
+
+    private static String createIndex(TableDefinition def, boolean unique, String name, String columns) {
+        return "CREATE " + (unique ? "UNIQUE " : StringUtil.EMPTY) + "INDEX " + quote(def.getName() + "_" + name) + " ON "
+                + quote(def.getName()) + " (" + columns + ");";
+    }
+
+    private static SQLGenerationException untranslatable(TableDefinition def, String line) {
+        return new SQLGenerationException("表" + def.getName() + "的columnDefinition无法转换为H2语法: " + line.trim());
+    }
+
+    // 未加引号的名称加上引号，与自动生成的列名一致，H2中不转换大小写
+    private static String quoteIdentifier(String identifier) {
+        return identifier.startsWith("\"") ? identifier : quote(identifier);
+    }
+
+    private static String quote(String identifier) {
+        return '"' + identifier + '"';
+    }
+}
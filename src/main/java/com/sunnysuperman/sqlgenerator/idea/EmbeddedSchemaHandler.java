@@ -0,0 +1,61 @@
+package com.sunnysuperman.sqlgenerator.idea;
+
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.psi.PsiDirectory;
+import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.TableDefinition;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 为包内所有实体类生成嵌入式测试库(H2)建表脚本及其哈希文件，内容未变化时不重写
+ */
+public class EmbeddedSchemaHandler extends SQLGeneratorHandler {
+    private static final Logger LOG = Logger.getInstance(EmbeddedSchemaHandler.class);
+
+    @Override
+    public void update(AnActionEvent e) {
+        // 脚本须包含全部表，只支持按包生成
+        e.getPresentation().setEnabledAndVisible(e.getData(CommonDataKeys.PSI_ELEMENT) instanceof PsiDirectory);
+    }
+
+    @Override
+    protected String generate(TableDefinition def) throws SQLGenerationException {
+        return EmbeddedSchemaGenerator.generate(def);
+    }
+
+    @Override
+    protected void showSql(Project project, List<String> sqlList) {
+        if (sqlList.isEmpty()) {
+            alert("包内没有实体类");
+            return;
+        }
+        String script = EmbeddedSchemaGenerator.bundle(sqlList);
+        String hash = script.substring(EmbeddedSchemaGenerator.HASH_PREFIX.length(), script.indexOf('\n'));
+        Path path = Paths.get(project.getBasePath()).resolve(SQLGeneratorSettings.getEmbeddedSchemaPath());
+        Path hashPath = path.resolveSibling(path.getFileName() + ".sha256");
+        try {
+            if (Files.exists(hashPath) && Files.exists(path)
+                    && hash.equals(new String(Files.readAllBytes(hashPath), StringUtil.UTF8_CHARSET).trim())) {
+                alert("测试库建表脚本未变化: " + path);
+                return;
+            }
+            Files.createDirectories(path.getParent());
+            Files.write(path, script.getBytes(StringUtil.UTF8_CHARSET));
+            Files.write(hashPath, (hash + "\n").getBytes(StringUtil.UTF8_CHARSET));
+            LocalFileSystem.getInstance().refreshIoFiles(Arrays.asList(path.toFile(), hashPath.toFile()));
+            alert("已生成测试库建表脚本(共" + sqlList.size() + "张表): " + path);
+        } catch (IOException ex) {
+            LOG.warn("EmbeddedSchemaHandler error", ex);
+            alert("写入测试库建表脚本失败: " + ex.getMessage());
+        }
+    }
+}
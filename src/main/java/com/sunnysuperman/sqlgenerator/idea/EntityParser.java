@@ -0,0 +1,248 @@
+package com.sunnysuperman.sqlgenerator.idea;
+
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.psi.PsiAnnotation;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiClassType;
+import com.intellij.psi.PsiEnumConstant;
+import com.intellij.psi.PsiField;
+import com.intellij.psi.PsiModifier;
+import com.intellij.psi.PsiPackage;
+import com.intellij.psi.PsiPrimitiveType;
+import com.intellij.psi.PsiType;
+import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.TableColumn;
+import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.TableDefinition;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * 将ss-repository实体类解析为表定义
+ */
+public class EntityParser {
+
+    protected EntityParser() {
+    }
+
+    /**
+     * 解析实体类
+     *
+     * @param type          实体类
+     * @param throwsOnError 非实体类时是否抛出异常
+     * @return 表定义，非实体类且throwsOnError为false时返回null
+     */
+    public static TableDefinition parse(PsiClass type, boolean throwsOnError) throws SQLGenerationException {
+        PsiAnnotation entityAnnotation = type.getAnnotation("com.sunnysuperman.repository.annotation.Entity");
+        if (entityAnnotation == null) {
+            if (throwsOnError) {
+                throw new SQLGenerationException("类未标记@Entity");
+            }
+            return null;
+        }
+        PsiAnnotation tableAnnotation = type.getAnnotation("com.sunnysuperman.repository.annotation.Table");
+        if (tableAnnotation == null) {
+            if (throwsOnError) {
+                throw new SQLGenerationException("类未标记@Table");
+            }
+            return null;
+        }
+        // 表定义
+        TableDefinition def = new TableDefinition();
+        def.setName(AnnotationUtils.getStringValue(tableAnnotation, "name"));
+        def.setEntityClassName(type.getQualifiedName());
+        def.setComment(AnnotationUtils.getStringValue(tableAnnotation, "comment"));
+        if (StringUtil.isEmpty(def.getComment())) {
+            PsiAnnotation apiModelAnnotation = type.getAnnotation("io.swagger.annotations.ApiModel");
+            if (apiModelAnnotation != null) {
+                def.setComment(AnnotationUtils.getStringValue(apiModelAnnotation, "value"));
+            }
+        }
+        def.setMapCamelToUnderscore(AnnotationUtils.getBooleanValue(tableAnnotation, "mapCamelToUnderscore", true));
+        def.setUuidTimeOrdered(SQLGeneratorSettings.isUuidTimeOrdered());
+        def.setColumns(new ArrayList<>());
+        // 遍历父类的字段
+        List<PsiClass> superTypeList = new ArrayList<>(3);
+        PsiClass superType = type.getSuperClass();
+        while (superType != null) {
+            superTypeList.add(0, superType);
+            superType = superType.getSuperClass();
+        }
+        for (PsiClass theSuperType : superTypeList) {
+            iterateFields(theSuperType, def);
+        }
+        // 遍历本类的字段
+        iterateFields(type, def);
+        return def;
+    }
+
+    /**
+     * 递归解析包及子包中的所有实体类，每个包单独持有读锁，避免大项目中长时间持有读锁阻塞写操作。
+     * 类及子包按名称排序，使生成结果与文件系统的遍历顺序无关
+     */
+    public static void parsePackage(PsiPackage psiPackage, List<TableDefinition> defList, ProgressIndicator progressIndicator,
+                                    GenerationStats stats) {
+        // 检查是否请求取消操作
+        if (progressIndicator.isCanceled()) {
+            return;
+        }
+        PsiPackage[] subPackages = ReadAction.compute(() -> {
+            long start = System.nanoTime();
+            int size = defList.size();
+            // 更新进度信息
+            progressIndicator.setText("遍历包: " + psiPackage.getQualifiedName());
+            // 遍历包中的所有类
+            PsiClass[] classes = psiPackage.getClasses().clone();
+            Arrays.sort(classes, Comparator.comparing(PsiClass::getName, Comparator.nullsFirst(Comparator.naturalOrder())));
+            for (PsiClass psiClass : classes) {
+                try {
+                    TableDefinition def = parse(psiClass, false);
+                    if (def != null) {
+                        defList.add(def);
+                    }
+                } catch (SQLGenerationException ex) {
+                    // ignore
+                }
+            }
+            PsiPackage[] packages = psiPackage.getSubPackages().clone();
+            Arrays.sort(packages, Comparator.comparing(PsiPackage::getName, Comparator.nullsFirst(Comparator.naturalOrder())));
+            stats.readLockReleased(System.nanoTime() - start, defList.size() - size);
+            return packages;
+        });
+        // 递归遍历子包
+        for (PsiPackage subPackage : subPackages) {
+            parsePackage(subPackage, defList, progressIndicator, stats);
+        }
+    }
+
+    private static void iterateFields(PsiClass type, TableDefinition def) throws SQLGenerationException {
+        for (PsiField field : type.getFields()) {
+            PsiAnnotation columnAnnotation = field.getAnnotation("com.sunnysuperman.repository.annotation.Column");
+            if (columnAnnotation == null) {
+                continue;
+            }
+            TableColumn column = new TableColumn();
+            def.getColumns().add(column);
+            column.setName(AnnotationUtils.getStringValue(columnAnnotation, "name"));
+            column.setComment(AnnotationUtils.getStringValue(columnAnnotation, "comment"));
+            if (StringUtil.isEmpty(column.getComment())) {
+                PsiAnnotation apiModelPropsAnnotation = field.getAnnotation("io.swagger.annotations.ApiModelProperty");
+                if (apiModelPropsAnnotation != null) {
+                    column.setComment(AnnotationUtils.getStringValue(apiModelPropsAnnotation, "value"));
+                }
+            }
+            column.setJavaName(field.getName());
+            column.setJavaType(getFieldJavaType(field));
+            column.setFieldType(field.getType().getCanonicalText());
+            PsiField keyField = null;
+            if (field.getType() instanceof PsiClassType) {
+                PsiClass fieldClass = ((PsiClassType) field.getType()).resolve();
+                if (fieldClass != null && fieldClass.isEnum()) {
+                    column.setEnumConstants(Stream.of(fieldClass.getFields()).filter(PsiEnumConstant.class::isInstance)
+                            .map(PsiField::getName).toArray(String[]::new));
+                }
+                keyField = fieldClass != null && !fieldClass.isEnum() ? findValueField(field, fieldClass) : null;
+                if (keyField != null) {
+                    column.setRelation(isRelation(field));
+                    column.setValueJavaName(keyField.getName());
+                    // 关联实体的主键为自定义主键类型时，记录该类型及其包装的字段，读写时需要构造或拆开
+                    PsiClass keyClass = column.isRelation() && keyField.getType() instanceof PsiClassType
+                            ? ((PsiClassType) keyField.getType()).resolve() : null;
+                    PsiField wrappedField = keyClass != null && !keyClass.isEnum() ? findValueField(keyField, keyClass) : null;
+                    if (wrappedField != null) {
+                        column.setValueWrapperType(keyClass.getQualifiedName());
+                        column.setValueWrapperJavaName(wrappedField.getName());
+                    }
+                }
+            }
+            column.setColumnDefinition(AnnotationUtils.getStringArrayValue(columnAnnotation, "columnDefinition"));
+            column.setNullable(AnnotationUtils.getBooleanValue(columnAnnotation, "nullable", true));
+            column.setLength(AnnotationUtils.getIntValue(columnAnnotation, "length", 255));
+            column.setPrecision(AnnotationUtils.getIntValue(columnAnnotation, "precision", 2));
+            // 关联字段与被关联的主键保持相同的类型和长度，关联查询时无需转换
+            if (column.isRelation()) {
+                column.setLength(getKeyLength(keyField.getAnnotation("com.sunnysuperman.repository.annotation.Column")));
+            }
+            PsiAnnotation idAnnotation = field.getAnnotation("com.sunnysuperman.repository.annotation.Id");
+            if (idAnnotation != null) {
+                column.setNullable(false);
+                column.setPrimary(true);
+                column.setLength(getKeyLength(columnAnnotation));
+                column.setAutoIncrement(Objects.equals("INCREMENT",
+                        AnnotationUtils.getEnumValue(idAnnotation, "strategy")));
+            }
+            PsiAnnotation versionAnnotation = field.getAnnotation("com.sunnysuperman.repository.annotation.VersionControl");
+            if (versionAnnotation != null) {
+                column.setNullable(false);
+                column.setVersionControl(true);
+            }
+        }
+    }
+
+    /**
+     * 主键长度：只在字符串主键时有意义，未显式指定时不沿用@Column的默认长度255，以免每个二级索引都带上255字节的主键
+     */
+    private static int getKeyLength(PsiAnnotation columnAnnotation) {
+        if (columnAnnotation == null || columnAnnotation.findDeclaredAttributeValue("length") == null) {
+            return SQLGenerator.DEFAULT_STRING_KEY_LENGTH;
+        }
+        return AnnotationUtils.getIntValue(columnAnnotation, "length", SQLGenerator.DEFAULT_STRING_KEY_LENGTH);
+    }
+
+    private static String getFieldJavaType(PsiField field) throws SQLGenerationException {
+        PsiType fieldType = field.getType();
+        if (fieldType instanceof PsiPrimitiveType) {
+            return fieldType.getPresentableText();
+        }
+        PsiClass fieldClass = ((PsiClassType) fieldType).resolve();
+        if (fieldClass == null) {
+            throw new SQLGenerationException("请确保类编译通过: " + fieldType.getCanonicalText());
+        }
+        // 枚举类统一转成Enumeration
+        if (fieldClass.isEnum()) {
+            return Enumeration.class.getName();
+        }
+        PsiField valueField = findValueField(field, fieldClass);
+        if (valueField != null) {
+            return getFieldJavaType(valueField);
+        }
+        return fieldClass.getQualifiedName();
+    }
+
+    /**
+     * 查找字段实际存储值所在的字段：关联实体取其主键，自定义主键类型(如只包装一个值的UserId)取其包装的字段
+     */
+    private static PsiField findValueField(PsiField field, PsiClass fieldClass) {
+        if (isRelation(field)) {
+            PsiField relatedIdField = findIdField(fieldClass);
+            if (relatedIdField != null) {
+                return relatedIdField;
+            }
+        }
+        if (field.getAnnotation("com.sunnysuperman.repository.annotation.Id") != null
+                && !SQLGenerator.isSupportedJavaType(fieldClass.getQualifiedName())) {
+            return findWrappedField(fieldClass);
+        }
+        return null;
+    }
+
+    private static boolean isRelation(PsiField field) {
+        return field.getAnnotation("com.sunnysuperman.repository.annotation.ManyToOne") != null ||
+                field.getAnnotation("com.sunnysuperman.repository.annotation.OneToOne") != null;
+    }
+
+    private static PsiField findWrappedField(PsiClass idClass) {
+        PsiField[] fields = Stream.of(idClass.getFields())
+                .filter(field -> !field.hasModifierProperty(PsiModifier.STATIC)).toArray(PsiField[]::new);
+        return fields.length == 1 ? fields[0] : null;
+    }
+
+    private static PsiField findIdField(PsiClass fieldClass) {
+        return Stream.of(fieldClass.getFields()).filter(field -> field.getAnnotation("com.sunnysuperman.repository.annotation.Id") != null).findAny().orElse(null);
+    }
+}
@@ -0,0 +1,85 @@
+package com.sunnysuperman.sqlgenerator.idea;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+
+/**
+ * 按包生成时的性能统计：耗时、吞吐量、单次读锁最长持有时间及堆内存峰值。
+ * 堆内存峰值取自各堆内存池记录的峰值，创建时重置，因此包含读锁之外及两次采样之间的分配；
+ * 峰值为JVM全局统计，同时进行的其它任务也计算在内
+ */
+public class GenerationStats {
+    private final long startTime;
+    private long elapsed;
+    private int packageCount;
+    private int entityCount;
+    private long readLockTotal;
+    private long readLockMax;
+    private long peakHeap;
+
+    public GenerationStats() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                pool.resetPeakUsage();
+            }
+        }
+        startTime = System.nanoTime();
+    }
+
+    /**
+     * 记录一次读锁持有
+     *
+     * @param nanos    读锁持有时间(纳秒)
+     * @param entities 本次处理的实体数
+     */
+    public void readLockReleased(long nanos, int entities) {
+        packageCount++;
+        entityCount += entities;
+        readLockTotal += nanos;
+        readLockMax = Math.max(readLockMax, nanos);
+    }
+
+    public void finish() {
+        elapsed = System.nanoTime() - startTime;
+        // 各内存池的峰值出现在不同时刻，其和为整个堆峰值的上限
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid() && pool.getPeakUsage() != null) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        Runtime runtime = Runtime.getRuntime();
+        peakHeap = Math.max(peak, runtime.totalMemory() - runtime.freeMemory());
+    }
+
+    public int getEntityCount() {
+        return entityCount;
+    }
+
+    /**
+     * @return 每秒处理的实体数
+     */
+    public double getThroughput() {
+        return elapsed > 0 ? entityCount * 1e9 / elapsed : 0;
+    }
+
+    public long getElapsedMillis() {
+        return elapsed / 1000000;
+    }
+
+    public long getReadLockMaxMillis() {
+        return readLockMax / 1000000;
+    }
+
+    public long getPeakHeapMb() {
+        return peakHeap / 1024 / 1024;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("packages=%d, entities=%d, elapsed=%dms, throughput=%.1f/s, readLock total=%dms max=%dms, peakHeap=%dMB",
+                packageCount, entityCount, getElapsedMillis(), getThroughput(), readLockTotal / 1000000,
+                getReadLockMaxMillis(), getPeakHeapMb());
+    }
+}
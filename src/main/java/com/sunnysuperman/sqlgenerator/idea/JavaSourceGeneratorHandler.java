@@ -0,0 +1,188 @@
+package com.sunnysuperman.sqlgenerator.idea;
+
+import com.intellij.ide.highlighter.JavaFileType;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.JavaDirectoryService;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiDirectory;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiFileFactory;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.psi.PsiPackage;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.TableDefinition;
+
+import javax.swing.JOptionPane;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 根据实体类生成Java源码，生成的类与实体类位于同一目录，已存在时覆盖以保持与实体类同步
+ */
+public abstract class JavaSourceGeneratorHandler extends AnAction {
+    private static final Logger LOG = Logger.getInstance(JavaSourceGeneratorHandler.class);
+
+    private static class GeneratedSource {
+        private final PsiDirectory directory;
+        private final String fileName;
+        private final String source;
+        private final TableDefinition def;
+
+        private GeneratedSource(PsiDirectory directory, String fileName, String source, TableDefinition def) {
+            this.directory = directory;
+            this.fileName = fileName;
+            this.source = source;
+            this.def = def;
+        }
+    }
+
+    @Override
+    public void actionPerformed(AnActionEvent e) {
+        PsiElement psiElement = e.getData(CommonDataKeys.PSI_ELEMENT);
+        List<GeneratedSource> sources = new ArrayList<>();
+        try {
+            if (psiElement instanceof PsiClass) {
+                PsiClass psiClass = (PsiClass) psiElement;
+                generateByJavaClass(psiClass, sources, true);
+                writeSources(psiClass.getProject(), sources);
+            } else if (psiElement instanceof PsiDirectory) {
+                PsiDirectory psiDirectory = (PsiDirectory) psiElement;
+                PsiPackage psiPackage = JavaDirectoryService.getInstance().getPackage(psiDirectory);
+                if (psiPackage != null) {
+                    traversePackageInBackground(psiPackage, sources);
+                }
+            }
+        } catch (SQLGenerationException ex) {
+            alert(ex.getMessage());
+        } catch (Exception ex) {
+            LOG.error(getClass().getSimpleName() + " error", ex);
+        }
+    }
+
+    private void traversePackageInBackground(PsiPackage psiPackage, List<GeneratedSource> sources) {
+        Project project = psiPackage.getProject();
+        Task.Backgroundable task = new Task.Backgroundable(project, "Generating " + getKind(), true) {
+            public void run(ProgressIndicator progressIndicator) {
+                progressIndicator.setIndeterminate(true);
+                GenerationStats stats = new GenerationStats();
+                List<TableDefinition> defList = new ArrayList<>();
+                EntityParser.parsePackage(psiPackage, defList, progressIndicator, stats);
+                // 按类名找回实体类所在目录，每个实体单独持有读锁
+                JavaPsiFacade facade = JavaPsiFacade.getInstance(project);
+                GlobalSearchScope scope = GlobalSearchScope.projectScope(project);
+                for (TableDefinition def : defList) {
+                    if (progressIndicator.isCanceled()) {
+                        return;
+                    }
+                    ReadAction.run(() -> {
+                        PsiClass psiClass = facade.findClass(def.getEntityClassName(), scope);
+                        if (psiClass != null) {
+                            try {
+                                generateByDefinition(psiClass, def, sources, false);
+                            } catch (SQLGenerationException ex) {
+                                // ignore
+                            }
+                        }
+                    });
+                }
+                stats.finish();
+                LOG.info(JavaSourceGeneratorHandler.this.getClass().getSimpleName() + " " + psiPackage.getQualifiedName() + ": " + stats);
+                if (!progressIndicator.isCanceled()) {
+                    // 写文件须在EDT中进行
+                    ApplicationManager.getApplication().invokeLater(() -> writeSources(project, sources));
+                }
+            }
+        };
+        ProgressManager.getInstance().run(task);
+    }
+
+    private void generateByJavaClass(PsiClass type, List<GeneratedSource> sources, boolean throwsOnError) throws SQLGenerationException {
+        TableDefinition def = EntityParser.parse(type, throwsOnError);
+        if (def != null) {
+            generateByDefinition(type, def, sources, throwsOnError);
+        }
+    }
+
+    private void generateByDefinition(PsiClass type, TableDefinition def, List<GeneratedSource> sources,
+                                      boolean throwsOnError) throws SQLGenerationException {
+        PsiFile file = type.getContainingFile();
+        if (!(file instanceof PsiJavaFile) || file.getContainingDirectory() == null) {
+            if (throwsOnError) {
+                throw new SQLGenerationException("请选择源码中的实体类");
+            }
+            return;
+        }
+        String packageName = ((PsiJavaFile) file).getPackageName();
+        String fileName = className(def, packageName) + ".java";
+        sources.add(new GeneratedSource(file.getContainingDirectory(), fileName, generate(def, packageName), def));
+    }
+
+    /**
+     * 生成的类名
+     */
+    protected abstract String className(TableDefinition def, String packageName);
+
+    /**
+     * 生成的源码，与实体类位于同一个包
+     */
+    protected abstract String generate(TableDefinition def, String packageName);
+
+    /**
+     * 生成的类的种类，用于提示信息
+     */
+    protected abstract String getKind();
+
+    /**
+     * 已存在的类是否已与实体类不一致，用于提示哪些类因实体类变更而重新生成
+     */
+    protected boolean isStale(String existingSource, TableDefinition def) {
+        return false;
+    }
+
+    private void writeSources(Project project, List<GeneratedSource> sources) {
+        if (sources.isEmpty()) {
+            alert("请选择Java实体类或所在包");
+            return;
+        }
+        List<String> staleFiles = new ArrayList<>();
+        WriteCommandAction.runWriteCommandAction(project, "生成" + getKind(), null, () -> {
+            for (GeneratedSource source : sources) {
+                PsiFile existing = source.directory.findFile(source.fileName);
+                if (existing == null) {
+                    source.directory.add(PsiFileFactory.getInstance(project)
+                            .createFileFromText(source.fileName, JavaFileType.INSTANCE, source.source));
+                    continue;
+                }
+                Document document = PsiDocumentManager.getInstance(project).getDocument(existing);
+                // 内容未变化时不修改，避免无谓的重新编译
+                if (document != null && !document.getText().equals(source.source)) {
+                    if (isStale(document.getText(), source.def)) {
+                        staleFiles.add(source.fileName);
+                    }
+                    document.setText(source.source);
+                    PsiDocumentManager.getInstance(project).commitDocument(document);
+                }
+            }
+        });
+        alert("已生成" + sources.size() + "个" + getKind() + (staleFiles.isEmpty() ? StringUtil.EMPTY
+                : "，其中" + staleFiles.size() + "个已与实体类不一致，已更新: " + String.join(", ", staleFiles)));
+    }
+
+    private void alert(String msg) {
+        JOptionPane.showMessageDialog(null, msg);
+    }
+}
@@ -0,0 +1,429 @@
+package com.sunnysuperman.sqlgenerator.idea;
+
+import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.TableColumn;
+import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.TableDefinition;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 根据表定义生成行映射器源码：按列序号读取ResultSet并给PreparedStatement绑定参数，无需反射
+ */
+public class RowMapperGenerator {
+
+    private static class JdbcAccessor {
+        // ResultSet.getXxx/PreparedStatement.setXxx的Xxx
+        private final String name;
+        // 读取值的Java类型
+        private final String javaType;
+        // java.sql.Types常量
+        private final String sqlType;
+        // getXxx返回基本类型，需要通过wasNull判断是否为null
+        private final boolean primitive;
+
+        private JdbcAccessor(String name, String javaType, String sqlType, boolean primitive) {
+            this.name = name;
+            this.javaType = javaType;
+            this.sqlType = sqlType;
+            this.primitive = primitive;
+        }
+    }
+
+    private static final JdbcAccessor LONG = new JdbcAccessor("Long", "long", "BIGINT", true);
+    private static final JdbcAccessor INT = new JdbcAccessor("Int", "int", "INTEGER", true);
+    private static final JdbcAccessor SHORT = new JdbcAccessor("Short", "short", "SMALLINT", true);
+    private static final JdbcAccessor BYTE = new JdbcAccessor("Byte", "byte", "TINYINT", true);
+    private static final JdbcAccessor BOOLEAN = new JdbcAccessor("Boolean", "boolean", "BIT", true);
+    private static final JdbcAccessor DOUBLE = new JdbcAccessor("Double", "double", "DOUBLE", true);
+    private static final JdbcAccessor FLOAT = new JdbcAccessor("Float", "float", "REAL", true);
+    private static final JdbcAccessor STRING = new JdbcAccessor("String", "String", "VARCHAR", false);
+    private static final JdbcAccessor DECIMAL = new JdbcAccessor("BigDecimal", "java.math.BigDecimal", "DECIMAL", false);
+    private static final JdbcAccessor BYTES = new JdbcAccessor("Bytes", "byte[]", "BINARY", false);
+
+    private static final Map<String, JdbcAccessor> accessorMapping = new HashMap<>();
+
+    static {
+        accessorMapping.put("long", LONG);
+        accessorMapping.put(Long.class.getName(), LONG);
+        accessorMapping.put("int", INT);
+        accessorMapping.put(Integer.class.getName(), INT);
+        accessorMapping.put("short", SHORT);
+        accessorMapping.put(Short.class.getName(), SHORT);
+        accessorMapping.put("byte", BYTE);
+        accessorMapping.put(Byte.class.getName(), BYTE);
+        accessorMapping.put("boolean", BOOLEAN);
+        accessorMapping.put(Boolean.class.getName(), BOOLEAN);
+        accessorMapping.put("double", DOUBLE);
+        accessorMapping.put(Double.class.getName(), DOUBLE);
+        accessorMapping.put("float", FLOAT);
+        accessorMapping.put(Float.class.getName(), FLOAT);
+        accessorMapping.put("char", STRING);
+        accessorMapping.put(Character.class.getName(), STRING);
+        accessorMapping.put(String.class.getName(), STRING);
+        accessorMapping.put(BigDecimal.class.getName(), DECIMAL);
+        // 日期以毫秒数存储
+        accessorMapping.put(Date.class.getName(), LONG);
+        accessorMapping.put(LocalDateTime.class.getName(), LONG);
+        accessorMapping.put(LocalDate.class.getName(), LONG);
+        // 枚举以序号存储
+        accessorMapping.put(Enumeration.class.getName(), BYTE);
+        accessorMapping.put(UUID.class.getName(), BYTES);
+    }
+
+    private static final String ZONE = "java.time.ZoneId.systemDefault()";
+    private static final Pattern DEFINITION_HASH_PATTERN = Pattern.compile("DEFINITION_HASH = \"(\\w+)\"");
+
+    protected RowMapperGenerator() {
+    }
+
+    /**
+     * 表定义的摘要，生成的行映射器中记录为DEFINITION_HASH。只包含影响生成代码的属性，注释等变更不改变摘要
+     */
+    public static String definitionHash(TableDefinition def) {
+        StringBuilder text = new StringBuilder(def.getName()).append('|').append(def.isUuidTimeOrdered());
+        for (TableColumn column : def.getColumns()) {
+            text.append('\n').append(SQLGenerator.columnName(column, def)).append('|').append(column.getJavaName())
+                    .append('|').append(column.getJavaType()).append('|').append(column.getFieldType())
+                    .append('|').append(column.getValueJavaName()).append('|').append(column.getValueWrapperType())
+                    .append('|').append(column.getValueWrapperJavaName()).append('|').append(column.isRelation())
+                    .append('|').append(column.isPrimary()).append('|').append(column.isAutoIncrement())
+                    .append('|').append(column.isVersionControl()).append('|').append(column.isNullable())
+                    .append('|').append(Arrays.toString(column.getEnumConstants()));
+        }
+        return EmbeddedSchemaGenerator.hash(text.toString()).substring(0, 16);
+    }
+
+    /**
+     * 已生成的行映射器是否与当前表定义不一致，没有DEFINITION_HASH(旧版本生成)的也视为不一致
+     *
+     * @param source 已生成的行映射器源码
+     */
+    public static boolean isStale(String source, TableDefinition def) {
+        Matcher matcher = DEFINITION_HASH_PATTERN.matcher(source);
+        return !matcher.find() || !matcher.group(1).equals(definitionHash(def));
+    }
+
+    public static String mapperClassName(TableDefinition def, String packageName) {
+        return StringUtil.replaceAll(entitySimpleName(def, packageName), ".", StringUtil.EMPTY) + "RowMapper";
+    }
+
+    /**
+     * 生成行映射器源码。列序号与生成的COLUMNS常量一致，查询时须按COLUMNS的顺序SELECT。
+     * 存为JSON的字段需要子类实现parseJson/formatJson，此时生成的类为抽象类。
+     *
+     * @param def         表定义
+     * @param packageName 实体类所在包，行映射器生成在同一个包内
+     * @return Java源码
+     */
+    public static String generate(TableDefinition def, String packageName) {
+        String entityType = entitySimpleName(def, packageName);
+        String className = mapperClassName(def, packageName);
+        List<TableColumn> columns = def.getColumns();
+        boolean hasJson = columns.stream().anyMatch(column -> !accessorMapping.containsKey(column.getJavaType()));
+        boolean hasUuid = columns.stream().anyMatch(column -> UUID.class.getName().equals(column.getJavaType()));
+        boolean hasChar = columns.stream().anyMatch(column -> "char".equals(column.getJavaType())
+                || Character.class.getName().equals(column.getJavaType()));
+
+        StringBuilder code = new StringBuilder();
+        if (StringUtil.isNotEmpty(packageName)) {
+            code.append("package ").append(packageName).append(";\n\n");
+        }
+        code.append("import java.sql.PreparedStatement;\n");
+        code.append("import java.sql.ResultSet;\n");
+        code.append("import java.sql.SQLException;\n");
+        code.append("import java.sql.Types;\n\n");
+        code.append("/**\n");
+        code.append(" * {@link ").append(entityType).append("}的行映射器，由sql-generator根据实体类生成，请勿手动修改，实体类变更后重新生成即可\n");
+        code.append(" */\n");
+        code.append("public ").append(hasJson ? "abstract " : StringUtil.EMPTY).append("class ").append(className).append(" {\n\n");
+        code.append("    /**\n");
+        code.append("     * 生成时实体类表定义的摘要，与当前实体类的不一致时说明本类已过期\n");
+        code.append("     */\n");
+        code.append("    public static final String DEFINITION_HASH = \"").append(definitionHash(def)).append("\";\n\n");
+
+        StringBuilder columnList = new StringBuilder();
+        for (TableColumn column : columns) {
+            if (columnList.length() > 0) {
+                columnList.append(", ");
+            }
+            columnList.append('`').append(SQLGenerator.columnName(column, def)).append('`');
+        }
+        code.append("    public static final String TABLE = \"").append(def.getName()).append("\";\n\n");
+        code.append("    public static final String COLUMNS = \"").append(columnList).append("\";\n\n");
+        // 枚举的values()每次调用都会复制数组，读取时使用缓存的数组
+        for (TableColumn column : columns) {
+            if (Enumeration.class.getName().equals(column.getJavaType())) {
+                code.append("    private static final ").append(column.getFieldType()).append("[] ").append(enumValuesName(column))
+                        .append(" = ").append(column.getFieldType()).append(".values();\n\n");
+            }
+        }
+
+        // 读取
+        if (hasJson) {
+            code.append("    @SuppressWarnings(\"unchecked\")\n");
+        }
+        code.append("    public ").append(entityType).append(" map(ResultSet rs) throws SQLException {\n");
+        code.append("        ").append(entityType).append(" entity = new ").append(entityType).append("();\n");
+        for (int i = 0; i < columns.size(); i++) {
+            appendRead(code, columns.get(i), i + 1);
+        }
+        code.append("        return entity;\n");
+        code.append("    }\n\n");
+
+        // 绑定参数，与写入语句常量类中各语句的参数一一对应；带offset的方法返回下一行的offset，便于绑定批量语句
+        code.append("    public void bind(PreparedStatement ps, ").append(entityType).append(" entity) throws SQLException {\n");
+        code.append("        bind(ps, entity, 0);\n");
+        code.append("    }\n\n");
+        appendBinder(code, "bind", entityType, columns, true);
+        code.append('\n');
+        appendBinder(code, "bindInsert", entityType, WriteStatementGenerator.insertColumns(def), true);
+        if (WriteStatementGenerator.hasUpsert(def)) {
+            code.append("\n    public int bindUpsert(PreparedStatement ps, ").append(entityType)
+                    .append(" entity, int offset) throws SQLException {\n");
+            code.append("        return bind(ps, entity, offset);\n");
+            code.append("    }\n");
+        }
+        if (WriteStatementGenerator.hasUpdate(def)) {
+            code.append('\n');
+            appendBinder(code, "bindUpdate", entityType, WriteStatementGenerator.updateParams(def), false);
+        }
+
+        if (hasJson) {
+            code.append("\n    protected abstract Object parseJson(String json, String fieldName);\n");
+            code.append("\n    protected abstract String formatJson(Object value, String fieldName);\n");
+        }
+        if (hasUuid) {
+            appendUuidHelpers(code, def.isUuidTimeOrdered());
+        }
+        if (hasChar) {
+            appendCharHelper(code);
+        }
+        code.append("}\n");
+        return code.toString();
+    }
+
+    private static void appendRead(StringBuilder code, TableColumn column, int index) {
+        JdbcAccessor accessor = accessor(column);
+        String setter = "entity.set" + capitalize(column.getJavaName());
+        String read = "rs.get" + accessor.name + "(" + index + ")";
+        // 基本类型字段直接赋值
+        if (isPrimitive(column.getFieldType())) {
+            String value = "char".equals(column.getFieldType()) ? "charAt(" + read + ")" : read;
+            code.append("        ").append(setter).append('(').append(value).append(");\n");
+            return;
+        }
+        // 字符串等无需转换的对象直接赋值
+        if (isPassThrough(column, accessor)) {
+            code.append("        ").append(setter).append('(').append(read).append(");\n");
+            return;
+        }
+        String v = "v" + index;
+        code.append("        ").append(accessor.javaType).append(' ').append(v).append(" = ").append(read).append(";\n");
+        code.append("        if (").append(accessor.primitive ? "!rs.wasNull()" : v + " != null").append(") {\n");
+        String value = fromJdbc(column, v);
+        if (column.getValueJavaName() == null) {
+            code.append("            ").append(setter).append('(').append(value).append(");\n");
+        } else if (column.isRelation()) {
+            String related = "r" + index;
+            code.append("            ").append(column.getFieldType()).append(' ').append(related)
+                    .append(" = new ").append(column.getFieldType()).append("();\n");
+            String key = column.getValueWrapperType() != null
+                    ? "new " + column.getValueWrapperType() + "(" + value + ")" : value;
+            code.append("            ").append(related).append(".set").append(capitalize(column.getValueJavaName()))
+                    .append('(').append(key).append(");\n");
+            code.append("            ").append(setter).append('(').append(related).append(");\n");
+        } else {
+            code.append("            ").append(setter).append("(new ").append(column.getFieldType()).append('(')
+                    .append(value).append("));\n");
+        }
+        code.append("        }\n");
+    }
+
+    /**
+     * 依次绑定columns
+     *
+     * @param withOffset 是否从offset之后开始绑定并返回下一个offset，否则从1开始
+     */
+    private static void appendBinder(StringBuilder code, String methodName, String entityType, List<TableColumn> columns,
+                                     boolean withOffset) {
+        code.append("    public ").append(withOffset ? "int " : "void ").append(methodName).append("(PreparedStatement ps, ")
+                .append(entityType).append(" entity").append(withOffset ? ", int offset" : StringUtil.EMPTY)
+                .append(") throws SQLException {\n");
+        for (int i = 0; i < columns.size(); i++) {
+            appendWrite(code, columns.get(i), i + 1, withOffset ? "offset + " + (i + 1) : String.valueOf(i + 1));
+        }
+        if (withOffset) {
+            code.append("        return offset + ").append(columns.size()).append(";\n");
+        }
+        code.append("    }\n");
+    }
+
+    private static void appendWrite(StringBuilder code, TableColumn column, int number, String index) {
+        JdbcAccessor accessor = accessor(column);
+        String getter = "entity." + getterName(column.getJavaName(), column.getFieldType()) + "()";
+        String write = "ps.set" + accessor.name + "(" + index + ", ";
+        if (isPrimitive(column.getFieldType())) {
+            String value = "char".equals(column.getFieldType()) ? "String.valueOf(" + getter + ")" : getter;
+            code.append("        ").append(write).append(value).append(");\n");
+            return;
+        }
+        if (isPassThrough(column, accessor)) {
+            code.append("        ").append(write).append(getter).append(");\n");
+            return;
+        }
+        String x = "x" + number;
+        String nullCheck = x + " == null";
+        String value = x;
+        if (column.getValueJavaName() != null) {
+            String keyType = column.getValueWrapperType() != null ? column.getValueWrapperType() : column.getJavaType();
+            value = x + "." + getterName(column.getValueJavaName(), keyType) + "()";
+            // 关联实体的自定义主键类型，再取其包装的值
+            if (column.getValueWrapperType() != null) {
+                nullCheck += " || " + value + " == null";
+                value += "." + getterName(column.getValueWrapperJavaName(), column.getJavaType()) + "()";
+            }
+            if (!isPrimitive(column.getJavaType())) {
+                nullCheck += " || " + value + " == null";
+            }
+        }
+        code.append("        ").append(column.getFieldType()).append(' ').append(x).append(" = ").append(getter).append(";\n");
+        code.append("        if (").append(nullCheck).append(") {\n");
+        code.append("            ps.setNull(").append(index).append(", Types.").append(accessor.sqlType).append(");\n");
+        code.append("        } else {\n");
+        code.append("            ").append(write).append(toJdbc(column, value)).append(");\n");
+        code.append("        }\n");
+    }
+
+    // 将读取的JDBC值转为字段(或其包装值)的类型
+    private static String fromJdbc(TableColumn column, String v) {
+        String javaType = column.getJavaType();
+        if (Character.class.getName().equals(javaType) || "char".equals(javaType)) {
+            return "charAt(" + v + ")";
+        }
+        if (Date.class.getName().equals(javaType)) {
+            return "new java.util.Date(" + v + ")";
+        }
+        if (LocalDateTime.class.getName().equals(javaType)) {
+            return "java.time.LocalDateTime.ofInstant(java.time.Instant.ofEpochMilli(" + v + "), " + ZONE + ")";
+        }
+        if (LocalDate.class.getName().equals(javaType)) {
+            return "java.time.Instant.ofEpochMilli(" + v + ").atZone(" + ZONE + ").toLocalDate()";
+        }
+        if (Enumeration.class.getName().equals(javaType)) {
+            return enumValuesName(column) + "[" + v + "]";
+        }
+        if (UUID.class.getName().equals(javaType)) {
+            return "toUuid(" + v + ")";
+        }
+        if (!accessorMapping.containsKey(javaType)) {
+            return "(" + column.getFieldType() + ") parseJson(" + v + ", \"" + column.getJavaName() + "\")";
+        }
+        return v;
+    }
+
+    private static String enumValuesName(TableColumn column) {
+        return StringUtil.camel2underscore(column.getJavaName()).toUpperCase() + "_VALUES";
+    }
+
+    // 将字段(或其包装值)转为写入的JDBC值
+    private static String toJdbc(TableColumn column, String x) {
+        String javaType = column.getJavaType();
+        if (Character.class.getName().equals(javaType) || "char".equals(javaType)) {
+            return "String.valueOf(" + x + ")";
+        }
+        if (Date.class.getName().equals(javaType)) {
+            return x + ".getTime()";
+        }
+        if (LocalDateTime.class.getName().equals(javaType)) {
+            return x + ".atZone(" + ZONE + ").toInstant().toEpochMilli()";
+        }
+        if (LocalDate.class.getName().equals(javaType)) {
+            return x + ".atStartOfDay(" + ZONE + ").toInstant().toEpochMilli()";
+        }
+        if (Enumeration.class.getName().equals(javaType)) {
+            return "(byte) " + x + ".ordinal()";
+        }
+        if (UUID.class.getName().equals(javaType)) {
+            return "toBytes(" + x + ")";
+        }
+        if (!accessorMapping.containsKey(javaType)) {
+            return "formatJson(" + x + ", \"" + column.getJavaName() + "\")";
+        }
+        return x;
+    }
+
+    private static void appendUuidHelpers(StringBuilder code, boolean timeOrdered) {
+        // 声明为版本1 UUID时与MySQL的UUID_TO_BIN(uuid, 1)/BIN_TO_UUID(bin, 1)一致：time_hi和time_low互换，使二进制按时间有序。
+        // 其它版本原样存储，版本7 UUID的原始字节本身按时间有序
+        code.append('\n');
+        code.append("    private static java.util.UUID toUuid(byte[] bytes) {\n");
+        if (timeOrdered) {
+            code.append("        bytes = new byte[]{bytes[4], bytes[5], bytes[6], bytes[7], bytes[2], bytes[3], bytes[0], bytes[1],\n");
+            code.append("                bytes[8], bytes[9], bytes[10], bytes[11], bytes[12], bytes[13], bytes[14], bytes[15]};\n");
+        }
+        code.append("        java.nio.ByteBuffer buffer = java.nio.ByteBuffer.wrap(bytes);\n");
+        code.append("        return new java.util.UUID(buffer.getLong(), buffer.getLong());\n");
+        code.append("    }\n\n");
+        code.append("    private static byte[] toBytes(java.util.UUID uuid) {\n");
+        code.append("        byte[] bytes = java.nio.ByteBuffer.allocate(16).putLong(uuid.getMostSignificantBits())\n");
+        code.append("                .putLong(uuid.getLeastSignificantBits()).array();\n");
+        if (timeOrdered) {
+            code.append("        return new byte[]{bytes[6], bytes[7], bytes[4], bytes[5], bytes[0], bytes[1], bytes[2], bytes[3],\n");
+            code.append("                bytes[8], bytes[9], bytes[10], bytes[11], bytes[12], bytes[13], bytes[14], bytes[15]};\n");
+        } else {
+            code.append("        return bytes;\n");
+        }
+        code.append("    }\n");
+    }
+
+    private static void appendCharHelper(StringBuilder code) {
+        code.append('\n');
+        code.append("    private static char charAt(String s) {\n");
+        code.append("        return s == null || s.isEmpty() ? '\\0' : s.charAt(0);\n");
+        code.append("    }\n");
+    }
+
+    private static boolean isPassThrough(TableColumn column, JdbcAccessor accessor) {
+        return !accessor.primitive && column.getValueJavaName() == null
+                && accessorMapping.containsKey(column.getJavaType()) && fromJdbc(column, "v").equals("v");
+    }
+
+    private static JdbcAccessor accessor(TableColumn column) {
+        JdbcAccessor accessor = accessorMapping.get(column.getJavaType());
+        // 其它类型以JSON字符串存储
+        return accessor != null ? accessor : STRING;
+    }
+
+    private static boolean isPrimitive(String type) {
+        return type != null && type.indexOf('.') < 0 && Character.isLowerCase(type.charAt(0));
+    }
+
+    private static String getterName(String javaName, String type) {
+        return ("boolean".equals(type) ? "is" : "get") + capitalize(javaName);
+    }
+
+    private static String capitalize(String s) {
+        return Character.toUpperCase(s.charAt(0)) + s.substring(1);
+    }
+
+    /**
+     * 实体类相对于所在包的类名，嵌套类为Outer.Inner
+     */
+    public static String entitySimpleName(TableDefinition def, String packageName) {
+        String className = def.getEntityClassName();
+        if (StringUtil.isNotEmpty(packageName) && className.startsWith(packageName + ".")) {
+            return className.substring(packageName.length() + 1);
+        }
+        return className;
+    }
+}
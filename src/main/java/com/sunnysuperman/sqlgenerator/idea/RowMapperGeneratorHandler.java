@@ -0,0 +1,29 @@
+package com.sunnysuperman.sqlgenerator.idea;
+
+import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.TableDefinition;
+
+/**
+ * 为实体类生成行映射器
+ */
+public class RowMapperGeneratorHandler extends JavaSourceGeneratorHandler {
+
+    @Override
+    protected String className(TableDefinition def, String packageName) {
+        return RowMapperGenerator.mapperClassName(def, packageName);
+    }
+
+    @Override
+    protected String generate(TableDefinition def, String packageName) {
+        return RowMapperGenerator.generate(def, packageName);
+    }
+
+    @Override
+    protected boolean isStale(String existingSource, TableDefinition def) {
+        return RowMapperGenerator.isStale(existingSource, def);
+    }
+
+    @Override
+    protected String getKind() {
+        return "RowMapper";
+    }
+}
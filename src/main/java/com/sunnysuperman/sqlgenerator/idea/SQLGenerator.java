@@ -4,11 +4,13 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 public class SQLGenerator {
 
@@ -18,7 +20,7 @@ public class SQLGenerator {
 
         DOUBLE, FLOAT, DECIMAL,
 
-        VARCHAR, JSON
+        VARCHAR, CHAR, BINARY, JSON
     }
 
     public static class TableColumn {
@@ -26,12 +28,19 @@ public class SQLGenerator {
         private String javaName;
         private String comment;
         private String javaType;
+        private String fieldType;
+        private boolean relation;
+        private String valueJavaName;
+        private String valueWrapperType;
+        private String valueWrapperJavaName;
+        private String[] enumConstants;
         private boolean nullable;
         private int length;
         private int precision;
         private String[] columnDefinition;
         private boolean autoIncrement;
         private boolean primary;
+        private boolean versionControl;
 
         public String getName() {
             return name;
@@ -65,6 +74,72 @@ public class SQLGenerator {
             this.javaType = javaType;
         }
 
+        /**
+         * 字段声明的类型(含泛型参数)
+         */
+        public String getFieldType() {
+            return fieldType;
+        }
+
+        public void setFieldType(String fieldType) {
+            this.fieldType = fieldType;
+        }
+
+        /**
+         * 是否为@ManyToOne/@OneToOne关联字段
+         */
+        public boolean isRelation() {
+            return relation;
+        }
+
+        public void setRelation(boolean relation) {
+            this.relation = relation;
+        }
+
+        /**
+         * 实际存储的值所在字段名：关联字段为关联实体的主键字段，自定义主键类型为其包装的字段；其它为null
+         */
+        public String getValueJavaName() {
+            return valueJavaName;
+        }
+
+        public void setValueJavaName(String valueJavaName) {
+            this.valueJavaName = valueJavaName;
+        }
+
+        /**
+         * 关联实体的主键为自定义主键类型(如ItemId)时为该类型，实际存储的值为其包装的字段；其它为null
+         */
+        public String getValueWrapperType() {
+            return valueWrapperType;
+        }
+
+        public void setValueWrapperType(String valueWrapperType) {
+            this.valueWrapperType = valueWrapperType;
+        }
+
+        /**
+         * 关联实体的自定义主键类型所包装的字段名；其它为null
+         */
+        public String getValueWrapperJavaName() {
+            return valueWrapperJavaName;
+        }
+
+        public void setValueWrapperJavaName(String valueWrapperJavaName) {
+            this.valueWrapperJavaName = valueWrapperJavaName;
+        }
+
+        /**
+         * 枚举字段的常量名，按序号排列；非枚举字段为null
+         */
+        public String[] getEnumConstants() {
+            return enumConstants;
+        }
+
+        public void setEnumConstants(String[] enumConstants) {
+            this.enumConstants = enumConstants;
+        }
+
         public boolean isNullable() {
             return nullable;
         }
@@ -113,12 +188,22 @@ public class SQLGenerator {
             this.primary = primary;
         }
 
+        public boolean isVersionControl() {
+            return versionControl;
+        }
+
+        public void setVersionControl(boolean versionControl) {
+            this.versionControl = versionControl;
+        }
+
     }
 
     public static class TableDefinition {
         private String name;
+        private String entityClassName;
         private String comment;
         private boolean mapCamelToUnderscore;
+        private boolean uuidTimeOrdered;
         private List<TableColumn> columns;
 
         public String getName() {
@@ -129,6 +214,14 @@ public class SQLGenerator {
             this.name = name;
         }
 
+        public String getEntityClassName() {
+            return entityClassName;
+        }
+
+        public void setEntityClassName(String entityClassName) {
+            this.entityClassName = entityClassName;
+        }
+
         public String getComment() {
             return comment;
         }
@@ -145,6 +238,17 @@ public class SQLGenerator {
             this.mapCamelToUnderscore = mapCamelToUnderscore;
         }
 
+        /**
+         * UUID是否声明为版本1 UUID并按UUID_TO_BIN(uuid, 1)交换时间字段存储
+         */
+        public boolean isUuidTimeOrdered() {
+            return uuidTimeOrdered;
+        }
+
+        public void setUuidTimeOrdered(boolean uuidTimeOrdered) {
+            this.uuidTimeOrdered = uuidTimeOrdered;
+        }
+
         public List<TableColumn> getColumns() {
             return columns;
         }
@@ -156,6 +260,10 @@ public class SQLGenerator {
     }
 
     private static final Map<String, MysqlType> typeMapping = new HashMap<>();
+    // 声明索引时索引名前后可能出现的关键字
+    private static final List<String> keyKeywords = Arrays.asList("PRIMARY", "UNIQUE", "FULLTEXT", "SPATIAL", "KEY", "INDEX",
+            "CONSTRAINT", "FOREIGN");
+    private static final Class<?>[] dateTypes = new Class<?>[] { Date.class, LocalDateTime.class, LocalDate.class };
 
     static {
         // 基本类型及包装类型
@@ -186,21 +294,39 @@ public class SQLGenerator {
         // 字串&算术&日期
         typeMapping.put(String.class.getName(), MysqlType.VARCHAR);
         typeMapping.put(BigDecimal.class.getName(), MysqlType.DECIMAL);
-        Class<?>[] dateTypes = new Class<?>[] { Date.class, LocalDateTime.class, LocalDate.class };
         for (Class<?> type : dateTypes) {
             typeMapping.put(type.getName(), MysqlType.BIGINT);
         }
 
         // 枚举
         typeMapping.put(Enumeration.class.getName(), MysqlType.TINYINT);
+
+        // UUID以16字节二进制存储
+        typeMapping.put(UUID.class.getName(), MysqlType.BINARY);
     }
 
+    /**
+     * 字符串主键未指定长度时的默认长度，可容纳带连字符的UUID字符串
+     */
+    public static final int DEFAULT_STRING_KEY_LENGTH = 36;
+
+    // MySQL中CHAR最长255个字符，更长的字符串主键使用VARCHAR
+    private static final int MAX_CHAR_LENGTH = 255;
+
+    // 作为参照的BIGINT主键字节数
+    private static final int BIGINT_KEY_BYTES = 8;
+    private static final int UUID_BYTES = 16;
+
     public static String generate(TableDefinition def) {
         StringBuilder sql = new StringBuilder();
         String tableName = def.name;
+        TableColumn idColumn = def.columns.stream().filter(i -> i.primary).findAny().orElse(null);
+        String warning = idColumn != null ? primaryKeyWarning(idColumn, def) : null;
+        if (warning != null) {
+            sql.append("-- ").append(warning).append('\n');
+        }
         sql.append("CREATE TABLE `").append(tableName).append("` (\n");
 
-        TableColumn idColumn = def.columns.stream().filter(i -> i.primary).findAny().orElse(null);
         List<TableColumn> columns = def.columns;
         if (idColumn != null && def.columns.get(0) != idColumn) {
             columns = new ArrayList<>(def.columns);
@@ -223,13 +349,19 @@ public class SQLGenerator {
             } else {
                 sql.append(indent);
                 String columnName = columnName(column, def);
-                MysqlType sqlType = ensureSqlTypeFromJavaType(column.javaType);
+                MysqlType sqlType = sqlType(column);
                 // `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT 'ID',
                 // `name` VARCHAR(255) NOT NULL COMMENT '',
                 sql.append('`').append(columnName).append('`');
                 sql.append(blank).append(sqlType);
-                if (sqlType == MysqlType.VARCHAR) {
-                    sql.append('(').append(column.length).append(')');
+                int length = getColumnLength(column);
+                if (length > 0) {
+                    sql.append('(').append(length).append(')');
+                }
+                // 字符串主键只包含ASCII字符，按字节比较，避免utf8mb4下每字符占4字节；
+                // 关联字段须与主键的字符集及排序规则一致，否则关联时要做转换，无法使用主键索引
+                if (isStringKey(column)) {
+                    sql.append(blank).append("CHARACTER SET ascii COLLATE ascii_bin");
                 }
                 int floatLength = getFloatLength(sqlType);
                 if (floatLength > 0) {
@@ -246,7 +378,13 @@ public class SQLGenerator {
         }
 
         if (idColumn != null) {
-            sql.append(blank).append(blank).append("PRIMARY KEY (`").append(columnName(idColumn, def)).append("`)\n");
+            sql.append(indent).append("PRIMARY KEY (`").append(columnName(idColumn, def)).append("`)").append(newLine);
+        }
+        // 关联字段建立索引，避免关联查询全表扫描
+        for (TableColumn column : relationIndexColumns(def)) {
+            String columnName = columnName(column, def);
+            sql.append(indent).append("KEY `").append(relationIndexName(column, def)).append("` (`").append(columnName)
+                    .append("`)").append(newLine);
         }
 
         // 移除最后一个逗号
@@ -263,19 +401,208 @@ public class SQLGenerator {
         return sql.toString();
     }
 
-    private static String columnName(TableColumn column, TableDefinition def) {
+    public static String columnName(TableColumn column, TableDefinition def) {
         if (StringUtil.isNotEmpty(column.name)) {
             return column.name;
         }
         return def.mapCamelToUnderscore ? StringUtil.camel2underscore(column.javaName) : column.javaName;
     }
 
+    /**
+     * 需要自动建立索引的关联字段(@ManyToOne/@OneToOne)，已被主键或columnDefinition中声明的索引以最左前缀覆盖的除外
+     */
+    public static List<TableColumn> relationIndexColumns(TableDefinition def) {
+        List<String> coveredColumns = declaredKeyLeadingColumns(def, false);
+        def.columns.stream().filter(i -> i.primary).findAny()
+                .ifPresent(idColumn -> coveredColumns.add(columnName(idColumn, def)));
+        List<TableColumn> indexColumns = new ArrayList<>();
+        for (TableColumn column : def.columns) {
+            if (!column.relation) {
+                continue;
+            }
+            String columnName = columnName(column, def);
+            if (coveredColumns.stream().noneMatch(columnName::equalsIgnoreCase)) {
+                indexColumns.add(column);
+                coveredColumns.add(columnName);
+            }
+        }
+        return indexColumns;
+    }
+
+    /**
+     * 关联字段的索引名，默认为idx_列名，与columnDefinition中声明的索引重名时加序号
+     */
+    public static String relationIndexName(TableColumn column, TableDefinition def) {
+        List<String> declaredNames = declaredKeyNames(def);
+        String prefix = "idx_" + columnName(column, def);
+        String name = prefix;
+        for (int i = 2; declaredNames.stream().anyMatch(name::equalsIgnoreCase); i++) {
+            name = prefix + "_" + i;
+        }
+        return name;
+    }
+
+    /**
+     * 解析columnDefinition中声明的索引名(如 KEY `idx_name` (`name`) 中的idx_name)
+     */
+    private static List<String> declaredKeyNames(TableDefinition def) {
+        List<String> names = new ArrayList<>();
+        for (TableColumn column : def.columns) {
+            if (column.columnDefinition == null) {
+                continue;
+            }
+            for (String line : column.columnDefinition) {
+                int open = line.indexOf('(');
+                if (open < 0) {
+                    continue;
+                }
+                String[] tokens = line.substring(0, open).trim().split("[\\s`]+");
+                if (tokens.length < 2 || !keyKeywords.contains(tokens[0].toUpperCase())) {
+                    continue;
+                }
+                for (String token : tokens) {
+                    if (!token.isEmpty() && !keyKeywords.contains(token.toUpperCase())) {
+                        names.add(token);
+                    }
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * 解析columnDefinition中声明的索引(如 KEY `idx_name` (`name`))，返回各索引的首列
+     *
+     * @param secondaryOnly 是否只返回二级索引
+     */
+    static List<String> declaredKeyLeadingColumns(TableDefinition def, boolean secondaryOnly) {
+        List<String> leadingColumns = new ArrayList<>();
+        for (TableColumn column : def.columns) {
+            if (column.columnDefinition == null) {
+                continue;
+            }
+            for (String line : column.columnDefinition) {
+                String upper = line.trim().toUpperCase();
+                boolean primaryKey = upper.startsWith("PRIMARY ") || upper.startsWith("CONSTRAINT ") && upper.contains(" PRIMARY ");
+                boolean key = primaryKey || upper.startsWith("KEY ") || upper.startsWith("INDEX ")
+                        || upper.startsWith("UNIQUE ") || upper.startsWith("CONSTRAINT ");
+                int open = line.indexOf('(');
+                if (!key || open < 0 || primaryKey && secondaryOnly) {
+                    continue;
+                }
+                for (String token : line.substring(open + 1).split("[\\s,`()]+")) {
+                    if (!token.isEmpty()) {
+                        leadingColumns.add(token);
+                        break;
+                    }
+                }
+            }
+        }
+        return leadingColumns;
+    }
+
+    public static MysqlType sqlType(TableColumn column) {
+        MysqlType sqlType = ensureSqlTypeFromJavaType(column.javaType);
+        // 字符串主键及引用它的关联字段使用定长字符
+        if (isStringKey(column) && column.length <= MAX_CHAR_LENGTH) {
+            return MysqlType.CHAR;
+        }
+        return sqlType;
+    }
+
+    /**
+     * 是否为字符串主键或引用它的关联字段，以ascii字符集存储
+     */
+    private static boolean isStringKey(TableColumn column) {
+        return (column.primary || column.relation) && ensureSqlTypeFromJavaType(column.javaType) == MysqlType.VARCHAR;
+    }
+
+    /**
+     * 主键过宽或无序时给出提示。InnoDB的二级索引叶子节点都保存主键值，主键越宽二级索引越大；
+     * 无序主键则导致聚簇索引频繁页分裂。
+     *
+     * @return 提示信息，主键无问题时返回null
+     */
+    private static String primaryKeyWarning(TableColumn idColumn, TableDefinition def) {
+        if (idColumn.columnDefinition != null && idColumn.columnDefinition.length > 0) {
+            return null;
+        }
+        MysqlType sqlType = sqlType(idColumn);
+        int keyBytes;
+        boolean random;
+        if (sqlType == MysqlType.BINARY) {
+            keyBytes = UUID_BYTES;
+            random = !def.uuidTimeOrdered;
+        } else if (isStringKey(idColumn)) {
+            keyBytes = idColumn.length;
+            random = true;
+        } else if (sqlType == MysqlType.JSON) {
+            return "主键`" + columnName(idColumn, def) + "`类型无法识别(" + idColumn.javaType + ")，请使用数值、UUID或字符串主键";
+        } else {
+            return null;
+        }
+        StringBuilder warning = new StringBuilder();
+        warning.append("主键`").append(columnName(idColumn, def)).append("`");
+        if (keyBytes > BIGINT_KEY_BYTES) {
+            int extraBytes = keyBytes - BIGINT_KEY_BYTES;
+            long extraMbPerMillionRows = Math.round(extraBytes * 1000000.0 / 1024 / 1024);
+            warning.append("占").append(keyBytes).append("字节，比BIGINT主键每个二级索引每行多约")
+                    .append(extraBytes).append("字节(每百万行约").append(extraMbPerMillionRows).append("MB)");
+            int secondaryIndexCount = declaredKeyLeadingColumns(def, true).size() + relationIndexColumns(def).size();
+            if (secondaryIndexCount > 0) {
+                warning.append("，本表").append(secondaryIndexCount).append("个二级索引每百万行共多约")
+                        .append(extraMbPerMillionRows * secondaryIndexCount).append("MB");
+            }
+        }
+        if (random) {
+            if (keyBytes > BIGINT_KEY_BYTES) {
+                warning.append("，");
+            }
+            warning.append(sqlType == MysqlType.BINARY ? "随机UUID(如UUID.randomUUID()生成的版本4 UUID)" : "字符串主键若非递增")
+                    .append("会导致聚簇索引频繁页分裂");
+            if (sqlType == MysqlType.BINARY) {
+                warning.append("，建议改用版本7 UUID(按原始字节存储即为时间有序)；若为版本1 UUID，可在设置中声明，按UUID_TO_BIN(uuid, 1)交换时间字段存储");
+            }
+        }
+        return warning.toString();
+    }
+
+    /**
+     * 是否为日期类型，日期以毫秒数存储为BIGINT
+     */
+    public static boolean isDateType(String javaType) {
+        for (Class<?> type : dateTypes) {
+            if (type.getName().equals(javaType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static boolean isSupportedJavaType(String javaType) {
+        return typeMapping.containsKey(javaType);
+    }
+
     private static MysqlType ensureSqlTypeFromJavaType(String javaType) {
         MysqlType sqlType = typeMapping.get(javaType);
         return sqlType != null ? sqlType : MysqlType.JSON;
     }
 
-    private static int getFloatLength(MysqlType sqlType) {
+    /**
+     * 字符串列为声明的长度，UUID列为16字节，其它类型返回-1
+     */
+    public static int getColumnLength(TableColumn column) {
+        MysqlType sqlType = sqlType(column);
+        if (sqlType == MysqlType.VARCHAR || sqlType == MysqlType.CHAR) {
+            return column.length;
+        }
+        if (sqlType == MysqlType.BINARY) {
+            return UUID_BYTES;
+        }
+        return -1;
+    }
+
+    public static int getFloatLength(MysqlType sqlType) {
         if (sqlType == MysqlType.FLOAT) {
             return 10;
         }
@@ -0,0 +1,97 @@
+package com.sunnysuperman.sqlgenerator.idea;
+
+import com.intellij.openapi.options.Configurable;
+import com.intellij.openapi.options.ConfigurationException;
+import com.intellij.util.ui.FormBuilder;
+
+import javax.swing.JCheckBox;
+import javax.swing.JComponent;
+import javax.swing.JPanel;
+import javax.swing.JSpinner;
+import javax.swing.JTextField;
+import javax.swing.SpinnerNumberModel;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 插件配置页面: Settings | Tools | SQL Generator
+ */
+public class SQLGeneratorConfigurable implements Configurable {
+    private JCheckBox uuidTimeOrderedCheckBox;
+    private JSpinner batchSizeSpinner;
+    private JTextField embeddedSchemaPathField;
+    private JTextField columnarTimeColumnsField;
+
+    @Override
+    public String getDisplayName() {
+        return "SQL Generator";
+    }
+
+    @Override
+    public JComponent createComponent() {
+        uuidTimeOrderedCheckBox = new JCheckBox("UUID为版本1 UUID，按UUID_TO_BIN(uuid, 1)交换时间字段存储");
+        uuidTimeOrderedCheckBox.setToolTipText("只适用于版本1(基于时间)UUID。UUID.randomUUID()生成的版本4 UUID交换后仍然随机；"
+                + "版本7 UUID按原始字节存储即为时间有序，交换反而打乱顺序");
+        batchSizeSpinner = new JSpinner(new SpinnerNumberModel(100, 1, 10000, 1));
+        batchSizeSpinner.setToolTipText("MySQL每条语句最多" + WriteStatementGenerator.MAX_PLACEHOLDERS
+                + "个参数，列数较多的表生成时会自动减少为不超过该上限的行数");
+        embeddedSchemaPathField = new JTextField();
+        columnarTimeColumnsField = new JTextField();
+        columnarTimeColumnsField.setToolTipText("多个以逗号分隔。须为写入后不再变化的字段(如创建时间)，否则分析库中更新后的行无法替换旧行");
+        JPanel panel = FormBuilder.createFormBuilder()
+                .addComponent(uuidTimeOrderedCheckBox)
+                .addLabeledComponent("批量写入语句每批行数:", batchSizeSpinner)
+                .addLabeledComponent("测试库建表脚本路径(相对于项目根目录):", embeddedSchemaPathField)
+                .addLabeledComponent("分析库分区时间字段(如createdAt，留空则只按主键排序):", columnarTimeColumnsField)
+                .addComponentFillVertically(new JPanel(), 0)
+                .getPanel();
+        reset();
+        return panel;
+    }
+
+    @Override
+    public boolean isModified() {
+        return uuidTimeOrderedCheckBox.isSelected() != SQLGeneratorSettings.isUuidTimeOrdered()
+                || getBatchSize() != SQLGeneratorSettings.getBatchSize()
+                || !embeddedSchemaPathField.getText().trim().equals(SQLGeneratorSettings.getEmbeddedSchemaPath())
+                || !getColumnarTimeColumns().equals(SQLGeneratorSettings.getColumnarTimeColumns());
+    }
+
+    @Override
+    public void apply() throws ConfigurationException {
+        String embeddedSchemaPath = embeddedSchemaPathField.getText().trim();
+        if (embeddedSchemaPath.isEmpty()) {
+            throw new ConfigurationException("测试库建表脚本路径不能为空");
+        }
+        SQLGeneratorSettings.setUuidTimeOrdered(uuidTimeOrderedCheckBox.isSelected());
+        SQLGeneratorSettings.setBatchSize(getBatchSize());
+        SQLGeneratorSettings.setEmbeddedSchemaPath(embeddedSchemaPath);
+        SQLGeneratorSettings.setColumnarTimeColumns(getColumnarTimeColumns());
+    }
+
+    @Override
+    public void reset() {
+        uuidTimeOrderedCheckBox.setSelected(SQLGeneratorSettings.isUuidTimeOrdered());
+        batchSizeSpinner.setValue(SQLGeneratorSettings.getBatchSize());
+        embeddedSchemaPathField.setText(SQLGeneratorSettings.getEmbeddedSchemaPath());
+        columnarTimeColumnsField.setText(String.join(", ", SQLGeneratorSettings.getColumnarTimeColumns()));
+    }
+
+    @Override
+    public void disposeUIResources() {
+        uuidTimeOrderedCheckBox = null;
+        batchSizeSpinner = null;
+        embeddedSchemaPathField = null;
+        columnarTimeColumnsField = null;
+    }
+
+    private int getBatchSize() {
+        return ((Number) batchSizeSpinner.getValue()).intValue();
+    }
+
+    private List<String> getColumnarTimeColumns() {
+        return Stream.of(columnarTimeColumnsField.getText().split(",")).map(String::trim).filter(StringUtil::isNotEmpty)
+                .collect(Collectors.toList());
+    }
+}
@@ -3,23 +3,17 @@ package com.sunnysuperman.sqlgenerator.idea;
 import com.intellij.openapi.actionSystem.AnAction;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.actionSystem.CommonDataKeys;
-import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
 import com.intellij.psi.JavaDirectoryService;
-import com.intellij.psi.PsiAnnotation;
 import com.intellij.psi.PsiClass;
-import com.intellij.psi.PsiClassType;
 import com.intellij.psi.PsiDirectory;
 import com.intellij.psi.PsiElement;
-import com.intellij.psi.PsiField;
 import com.intellij.psi.PsiPackage;
-import com.intellij.psi.PsiPrimitiveType;
-import com.intellij.psi.PsiType;
-import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.TableColumn;
 import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.TableDefinition;
 
 import javax.swing.JButton;
@@ -31,10 +25,7 @@ import java.awt.BorderLayout;
 import java.awt.Toolkit;
 import java.awt.datatransfer.StringSelection;
 import java.util.ArrayList;
-import java.util.Enumeration;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Stream;
 
 
 public class SQLGeneratorHandler extends AnAction {
@@ -54,13 +45,13 @@ public class SQLGeneratorHandler extends AnAction {
                 if (sql != null) {
                     sqlList.add(sql);
                 }
-                showSql(sqlList);
+                showSql(psiClass.getProject(), sqlList);
             } else if (psiElement instanceof PsiDirectory) {
                 // 如果选中的是一个目录，检查它是否代表一个包
                 PsiDirectory psiDirectory = (PsiDirectory) psiElement;
                 PsiPackage psiPackage = JavaDirectoryService.getInstance().getPackage(psiDirectory);
                 if (psiPackage != null) {
-                    traversePackageInBackground(psiPackage, sqlList);
+                    traversePackageInBackground(psiPackage);
                 }
             }
         } catch (SQLGenerationException ex) {
@@ -70,7 +61,7 @@ public class SQLGeneratorHandler extends AnAction {
         }
     }
 
-    private void traversePackageInBackground(PsiPackage psiPackage, List<String> sqlList) {
+    private void traversePackageInBackground(PsiPackage psiPackage) {
         Project project = psiPackage.getProject();
         // 创建后台任务
         Task.Backgroundable task = new Task.Backgroundable(project, "Traversing package", true) {
@@ -79,12 +70,20 @@ public class SQLGeneratorHandler extends AnAction {
                 progressIndicator.setFraction(0.0);
                 progressIndicator.setIndeterminate(false);
                 // 在这里执行耗时操作
-                ReadAction.run(() -> {
-                    traversePackage(psiPackage, sqlList, progressIndicator);
-                    if (!progressIndicator.isCanceled()) {
-                        showSql(sqlList);
-                    }
-                });
+                GenerationStats stats = new GenerationStats();
+                List<String> sqlList;
+                try {
+                    sqlList = generatePackage(psiPackage, progressIndicator, stats);
+                } catch (SQLGenerationException ex) {
+                    ApplicationManager.getApplication().invokeLater(() -> alert(ex.getMessage()));
+                    return;
+                }
+                stats.finish();
+                LOG.info(SQLGeneratorHandler.this.getClass().getSimpleName() + " " + psiPackage.getQualifiedName() + ": " + stats);
+                if (!progressIndicator.isCanceled()) {
+                    // 弹框须在EDT中进行
+                    ApplicationManager.getApplication().invokeLater(() -> showSql(project, sqlList));
+                }
                 // 当任务完成时更新进度条状态
                 progressIndicator.setFraction(1.0);
             }
@@ -93,31 +92,7 @@ public class SQLGeneratorHandler extends AnAction {
         ProgressManager.getInstance().run(task);
     }
 
-    private void traversePackage(PsiPackage psiPackage, List<String> sqlList, ProgressIndicator progressIndicator) {
-        // 检查是否请求取消操作
-        if (progressIndicator.isCanceled()) {
-            return;
-        }
-        // 更新进度信息
-        progressIndicator.setText("遍历包生成SQL: " + psiPackage.getQualifiedName());
-        // 遍历包中的所有类
-        for (PsiClass psiClass : psiPackage.getClasses()) {
-            try {
-                String sql = generateSQLByJavaClass(psiClass, false);
-                if (sql != null) {
-                    sqlList.add(sql);
-                }
-            } catch (SQLGenerationException ex) {
-                // ignore
-            }
-        }
-        // 递归遍历子包
-        for (PsiPackage subPackage : psiPackage.getSubPackages()) {
-            traversePackage(subPackage, sqlList, progressIndicator);
-        }
-    }
-
-    private void showSql(List<String> sqlList) {
+    protected void showSql(Project project, List<String> sqlList) {
         if (sqlList.isEmpty()) {
             alert("请选择Java实体类或所在包");
             return;
@@ -127,112 +102,49 @@ public class SQLGeneratorHandler extends AnAction {
     }
 
     private String generateSQLByJavaClass(PsiClass type, boolean throwsOnError) throws SQLGenerationException {
-        PsiAnnotation entityAnnotation = type.getAnnotation("com.sunnysuperman.repository.annotation.Entity");
-        if (entityAnnotation == null) {
-            if (throwsOnError) {
-                throw new SQLGenerationException("类未标记@Entity");
-            }
+        TableDefinition def = EntityParser.parse(type, throwsOnError);
+        if (def == null) {
             return null;
         }
-        PsiAnnotation tableAnnotation = type.getAnnotation("com.sunnysuperman.repository.annotation.Table");
-        if (tableAnnotation == null) {
-            if (throwsOnError) {
-                throw new SQLGenerationException("类未标记@Table");
-            }
-            return null;
-        }
-        // 表定义
-        TableDefinition def = new TableDefinition();
-        def.setName(AnnotationUtils.getStringValue(tableAnnotation, "name"));
-        def.setComment(AnnotationUtils.getStringValue(tableAnnotation, "comment"));
-        if (StringUtil.isEmpty(def.getComment())) {
-            PsiAnnotation apiModelAnnotation = type.getAnnotation("io.swagger.annotations.ApiModel");
-            if (apiModelAnnotation != null) {
-                def.setComment(AnnotationUtils.getStringValue(apiModelAnnotation, "value"));
-            }
-        }
-        def.setMapCamelToUnderscore(AnnotationUtils.getBooleanValue(tableAnnotation, "mapCamelToUnderscore", true));
-        def.setColumns(new ArrayList<>());
-        // 遍历父类的字段
-        List<PsiClass> superTypeList = new ArrayList<>(3);
-        PsiClass superType = type.getSuperClass();
-        while (superType != null) {
-            superTypeList.add(0, superType);
-            superType = superType.getSuperClass();
-        }
-        for (PsiClass theSuperType : superTypeList) {
-            iterateFields(theSuperType, def);
-        }
-        // 遍历本类的字段
-        iterateFields(type, def);
         // 最终生成SQL
-        return SQLGenerator.generate(def);
+        return generate(def);
     }
 
-    private void iterateFields(PsiClass type, TableDefinition def) throws SQLGenerationException {
-        for (PsiField field : type.getFields()) {
-            PsiAnnotation columnAnnotation = field.getAnnotation("com.sunnysuperman.repository.annotation.Column");
-            if (columnAnnotation == null) {
-                continue;
-            }
-            TableColumn column = new TableColumn();
-            def.getColumns().add(column);
-            column.setName(AnnotationUtils.getStringValue(columnAnnotation, "name"));
-            column.setComment(AnnotationUtils.getStringValue(columnAnnotation, "comment"));
-            if (StringUtil.isEmpty(column.getComment())) {
-                PsiAnnotation apiModelPropsAnnotation = field.getAnnotation("io.swagger.annotations.ApiModelProperty");
-                if (apiModelPropsAnnotation != null) {
-                    column.setComment(AnnotationUtils.getStringValue(apiModelPropsAnnotation, "value"));
-                }
-            }
-            column.setJavaName(field.getName());
-            column.setJavaType(getFieldJavaType(field));
-            column.setColumnDefinition(AnnotationUtils.getStringArrayValue(columnAnnotation, "columnDefinition"));
-            column.setNullable(AnnotationUtils.getBooleanValue(columnAnnotation, "nullable", true));
-            column.setLength(AnnotationUtils.getIntValue(columnAnnotation, "length", 255));
-            column.setPrecision(AnnotationUtils.getIntValue(columnAnnotation, "precision", 2));
-            PsiAnnotation idAnnotation = field.getAnnotation("com.sunnysuperman.repository.annotation.Id");
-            if (idAnnotation != null) {
-                column.setNullable(false);
-                column.setPrimary(true);
-                column.setAutoIncrement(Objects.equals("INCREMENT",
-                        AnnotationUtils.getEnumValue(idAnnotation, "strategy")));
-            }
-            PsiAnnotation versionAnnotation = field.getAnnotation("com.sunnysuperman.repository.annotation.VersionControl");
-            if (versionAnnotation != null) {
-                column.setNullable(false);
-            }
-        }
+    /**
+     * 解析包及子包中的所有实体类，按依赖顺序生成
+     */
+    List<String> generatePackage(PsiPackage psiPackage, ProgressIndicator progressIndicator, GenerationStats stats)
+            throws SQLGenerationException {
+        List<TableDefinition> defList = new ArrayList<>();
+        EntityParser.parsePackage(psiPackage, defList, progressIndicator, stats);
+        return generateInDependencyOrder(defList);
     }
 
-    private String getFieldJavaType(PsiField field) throws SQLGenerationException {
-        PsiType fieldType = field.getType();
-        if (fieldType instanceof PsiPrimitiveType) {
-            return fieldType.getPresentableText();
-        }
-        PsiClass fieldClass = ((PsiClassType) fieldType).resolve();
-        if (fieldClass == null) {
-            throw new SQLGenerationException("请确保类编译通过: " + fieldType.getCanonicalText());
-        }
-        // 枚举类统一转成Enumeration
-        if (fieldClass.isEnum()) {
-            return Enumeration.class.getName();
-        }
-        if (field.getAnnotation("com.sunnysuperman.repository.annotation.ManyToOne") != null ||
-                field.getAnnotation("com.sunnysuperman.repository.annotation.OneToOne") != null) {
-            PsiField relatedIdField = findIdField(fieldClass);
-            if (relatedIdField != null) {
-                return getFieldJavaType(relatedIdField);
+    /**
+     * 按关联关系分批生成，被关联的表在前，同一批内的表互不依赖，可并行执行
+     */
+    private List<String> generateInDependencyOrder(List<TableDefinition> defList) throws SQLGenerationException {
+        List<String> sqlList = new ArrayList<>(defList.size());
+        List<List<TableDefinition>> batches = TableDependencySorter.sort(defList);
+        for (int i = 0; i < batches.size(); i++) {
+            List<TableDefinition> batch = batches.get(i);
+            for (int j = 0; j < batch.size(); j++) {
+                String sql = generate(batch.get(j));
+                sqlList.add(j == 0 && batches.size() > 1 ? batchComment(i + 1, batch.size()) + "\n" + sql : sql);
             }
         }
-        return fieldClass.getQualifiedName();
+        return sqlList;
+    }
+
+    protected String generate(TableDefinition def) throws SQLGenerationException {
+        return SQLGenerator.generate(def);
     }
 
-    private PsiField findIdField(PsiClass fieldClass) {
-        return Stream.of(fieldClass.getFields()).filter(field -> field.getAnnotation("com.sunnysuperman.repository.annotation.Id") != null).findAny().orElse(null);
+    protected String batchComment(int batchNo, int tableCount) {
+        return "-- 第" + batchNo + "批，共" + tableCount + "张表，可并行执行";
     }
 
-    private void showSqlDialog(String sql) {
+    protected void showSqlDialog(String sql) {
         JDialog dialog = new JDialog();
         // 显示对话框
         JTextArea textArea = new JTextArea(sql);
@@ -256,7 +168,7 @@ public class SQLGeneratorHandler extends AnAction {
         Toolkit.getDefaultToolkit().getSystemClipboard().setContents(new StringSelection(sql), null);
     }
 
-    private void alert(String msg) {
+    protected void alert(String msg) {
         JOptionPane.showMessageDialog(null, msg);
     }
 }
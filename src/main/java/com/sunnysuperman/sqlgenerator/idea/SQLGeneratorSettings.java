@@ -0,0 +1,83 @@
+package com.sunnysuperman.sqlgenerator.idea;
+
+import com.intellij.ide.util.PropertiesComponent;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 插件配置，保存在IDE全局配置中，可在Settings | Tools | SQL Generator中修改
+ */
+public class SQLGeneratorSettings {
+    private static final String PREFIX = "com.sunnysuperman.sql-generator.";
+    // 含义由“按时间有序存储”改为“声明为版本1 UUID”后换了键名，须重新显式开启
+    private static final String UUID_TIME_ORDERED = PREFIX + "uuidV1TimeOrdered";
+    private static final String BATCH_SIZE = PREFIX + "batchSize";
+    private static final String JDBC_URL = PREFIX + "jdbcUrl";
+    private static final String EMBEDDED_SCHEMA_PATH = PREFIX + "embeddedSchemaPath";
+    private static final String COLUMNAR_TIME_COLUMNS = PREFIX + "columnarTimeColumns";
+
+    protected SQLGeneratorSettings() {
+    }
+
+    /**
+     * UUID是否为版本1(基于时间)UUID，按UUID_TO_BIN(uuid, 1)交换时间字段后存储，默认为false。
+     * 交换只能使版本1 UUID有序：UUID.randomUUID()生成的版本4 UUID交换后仍然随机，
+     * 版本7 UUID按原始字节顺序即为时间有序，交换反而打乱顺序
+     */
+    public static boolean isUuidTimeOrdered() {
+        return PropertiesComponent.getInstance().getBoolean(UUID_TIME_ORDERED, false);
+    }
+
+    public static void setUuidTimeOrdered(boolean uuidTimeOrdered) {
+        PropertiesComponent.getInstance().setValue(UUID_TIME_ORDERED, uuidTimeOrdered, false);
+    }
+
+    /**
+     * 批量写入语句每批的行数，默认为100
+     */
+    public static int getBatchSize() {
+        return PropertiesComponent.getInstance().getInt(BATCH_SIZE, 100);
+    }
+
+    public static void setBatchSize(int batchSize) {
+        PropertiesComponent.getInstance().setValue(BATCH_SIZE, batchSize, 100);
+    }
+
+    /**
+     * 上次检查表结构差异时使用的JDBC URL，不含用户名和密码(保存在IDE的密码库中)
+     */
+    public static String getJdbcUrl() {
+        return PropertiesComponent.getInstance().getValue(JDBC_URL);
+    }
+
+    public static void setJdbcUrl(String jdbcUrl) {
+        PropertiesComponent.getInstance().setValue(JDBC_URL, jdbcUrl);
+    }
+
+    /**
+     * 测试库建表脚本的保存路径，相对于项目根目录，默认为src/test/resources/schema-h2.sql
+     */
+    public static String getEmbeddedSchemaPath() {
+        return PropertiesComponent.getInstance().getValue(EMBEDDED_SCHEMA_PATH, "src/test/resources/schema-h2.sql");
+    }
+
+    public static void setEmbeddedSchemaPath(String embeddedSchemaPath) {
+        PropertiesComponent.getInstance().setValue(EMBEDDED_SCHEMA_PATH, embeddedSchemaPath);
+    }
+
+    /**
+     * 分析库建表时作为分区及排序键的时间字段名(Java字段名或列名)，默认为空，即只按主键排序。
+     * 这些字段须在写入后不再变化(如创建时间)：ReplacingMergeTree只合并排序键相同且位于同一分区的行，
+     * 若时间字段会被更新，更新后的行无法替换旧行
+     */
+    public static List<String> getColumnarTimeColumns() {
+        String value = PropertiesComponent.getInstance().getValue(COLUMNAR_TIME_COLUMNS, StringUtil.EMPTY);
+        return Stream.of(value.split(",")).map(String::trim).filter(StringUtil::isNotEmpty).collect(Collectors.toList());
+    }
+
+    public static void setColumnarTimeColumns(List<String> columnarTimeColumns) {
+        PropertiesComponent.getInstance().setValue(COLUMNAR_TIME_COLUMNS, String.join(",", columnarTimeColumns));
+    }
+}
@@ -0,0 +1,276 @@
+package com.sunnysuperman.sqlgenerator.idea;
+
+import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.MysqlType;
+import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.TableColumn;
+import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.TableDefinition;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 对比数据库中的实际表结构与实体类生成的表结构，报告缺失的表/列/索引、类型或长度不一致及可空性不一致。
+ * 表结构元数据按批从information_schema查询，多批并行，避免逐表查询。
+ */
+public class SchemaDriftDetector {
+
+    /**
+     * 每批查询的表数
+     */
+    public static final int TABLES_PER_BATCH = 500;
+
+    /**
+     * 数据库连接提供者，每个并行任务使用独立的连接
+     */
+    public interface ConnectionProvider {
+        Connection getConnection() throws SQLException;
+    }
+
+    private static class ColumnMeta {
+        private String dataType;
+        private long length;
+        private int scale;
+        private boolean nullable;
+    }
+
+    private static class TableMeta {
+        // 数据库中的实际表名，大小写可能与实体类中的不同
+        private String name;
+        private final Map<String, ColumnMeta> columns = new HashMap<>();
+        // 各索引的首列
+        private final List<String> indexLeadingColumns = new ArrayList<>();
+    }
+
+    // 其它数据库(如MySQL兼容模式下的H2)返回的类型名与MySQL类型的对应关系
+    private static final Map<String, String> typeAliases = new HashMap<>();
+
+    // JSON字段也可能以字符串类型存储(如测试库建表脚本中)
+    private static final List<String> jsonCompatibleTypes = Arrays.asList("json", "varchar", "text", "mediumtext",
+            "longtext", "character large object");
+
+    static {
+        typeAliases.put("integer", "int");
+        typeAliases.put("character varying", "varchar");
+        typeAliases.put("character", "char");
+        typeAliases.put("binary varying", "varbinary");
+        typeAliases.put("boolean", "bit");
+        typeAliases.put("numeric", "decimal");
+        typeAliases.put("double precision", "double");
+        typeAliases.put("real", "float");
+    }
+
+    protected SchemaDriftDetector() {
+    }
+
+    /**
+     * @param connectionProvider 数据库连接提供者
+     * @param defs               实体类解析得到的表定义
+     * @param parallelism        并行查询的连接数
+     * @return 差异描述，无差异时为空列表
+     */
+    public static List<String> detect(ConnectionProvider connectionProvider, List<TableDefinition> defs, int parallelism)
+            throws SQLException {
+        List<List<String>> batches = new ArrayList<>();
+        for (int i = 0; i < defs.size(); i += TABLES_PER_BATCH) {
+            List<String> batch = new ArrayList<>();
+            for (TableDefinition def : defs.subList(i, Math.min(i + TABLES_PER_BATCH, defs.size()))) {
+                batch.add(def.getName());
+            }
+            batches.add(batch);
+        }
+        Map<String, TableMeta> tables = new HashMap<>();
+        if (!batches.isEmpty()) {
+            ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, batches.size())));
+            try {
+                List<Future<Map<String, TableMeta>>> futures = new ArrayList<>(batches.size());
+                for (List<String> batch : batches) {
+                    futures.add(executor.submit(() -> fetchBatch(connectionProvider, batch)));
+                }
+                for (Future<Map<String, TableMeta>> future : futures) {
+                    tables.putAll(future.get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("查询表结构被中断", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof SQLException ? (SQLException) cause : new SQLException(cause.getMessage(), cause);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        List<String> report = new ArrayList<>();
+        for (TableDefinition def : defs) {
+            TableMeta table = tables.get(lower(def.getName()));
+            if (table == null) {
+                report.add("表`" + def.getName() + "`不存在");
+                continue;
+            }
+            compareTable(def, table, report);
+        }
+        return report;
+    }
+
+    private static void compareTable(TableDefinition def, TableMeta table, List<String> report) {
+        String prefix = "表`" + def.getName() + "`";
+        for (TableColumn column : def.getColumns()) {
+            String columnName = SQLGenerator.columnName(column, def);
+            ColumnMeta actual = table.columns.get(lower(columnName));
+            if (actual == null) {
+                report.add(prefix + "缺少列`" + columnName + "`");
+                continue;
+            }
+            // 自定义columnDefinition的列只检查是否存在
+            if (column.getColumnDefinition() != null && column.getColumnDefinition().length > 0) {
+                continue;
+            }
+            MysqlType sqlType = SQLGenerator.sqlType(column);
+            String expectedType = sqlType.name().toLowerCase(Locale.ROOT);
+            boolean typeMatches = sqlType == MysqlType.JSON ? jsonCompatibleTypes.contains(actual.dataType)
+                    : expectedType.equals(actual.dataType);
+            if (!typeMatches) {
+                report.add(prefix + "列`" + columnName + "`类型不一致: 期望" + expectedType + "，实际" + actual.dataType);
+                continue;
+            }
+            int expectedLength = SQLGenerator.getColumnLength(column);
+            if (expectedLength > 0 && expectedLength != actual.length) {
+                report.add(prefix + "列`" + columnName + "`长度不一致: 期望" + expectedLength + "，实际" + actual.length);
+            }
+            if (sqlType == MysqlType.DECIMAL && (SQLGenerator.getFloatLength(sqlType) != actual.length
+                    || column.getPrecision() != actual.scale)) {
+                report.add(prefix + "列`" + columnName + "`精度不一致: 期望(" + SQLGenerator.getFloatLength(sqlType) + ","
+                        + column.getPrecision() + ")，实际(" + actual.length + "," + actual.scale + ")");
+            }
+            if (column.isNullable() != actual.nullable) {
+                report.add(prefix + "列`" + columnName + "`可空性不一致: 期望" + (column.isNullable() ? "NULL" : "NOT NULL")
+                        + "，实际" + (actual.nullable ? "NULL" : "NOT NULL"));
+            }
+        }
+        // 索引只要求存在以该列开头的索引，包括关联字段的索引及columnDefinition中声明的索引
+        Set<String> indexColumns = new LinkedHashSet<>();
+        for (TableColumn column : SQLGenerator.relationIndexColumns(def)) {
+            indexColumns.add(SQLGenerator.columnName(column, def));
+        }
+        indexColumns.addAll(SQLGenerator.declaredKeyLeadingColumns(def, false));
+        for (String columnName : indexColumns) {
+            if (!table.indexLeadingColumns.contains(lower(columnName))) {
+                report.add(prefix + "缺少索引(`" + columnName + "`)");
+            }
+        }
+        def.getColumns().stream().filter(TableColumn::isPrimary).findAny().ifPresent(column -> {
+            String columnName = SQLGenerator.columnName(column, def);
+            if (!table.indexLeadingColumns.contains(lower(columnName))) {
+                report.add(prefix + "缺少主键(`" + columnName + "`)");
+            }
+        });
+    }
+
+    private static Map<String, TableMeta> fetchBatch(ConnectionProvider connectionProvider, List<String> tableNames)
+            throws SQLException {
+        Map<String, TableMeta> tables = new HashMap<>();
+        try (Connection connection = connectionProvider.getConnection()) {
+            // MySQL的当前库为catalog，其它数据库一般为schema
+            String schema = connection.getSchema() != null ? connection.getSchema() : connection.getCatalog();
+            List<String> names = nameVariants(tableNames);
+            String in = String.join(", ", Collections.nCopies(names.size(), "?"));
+            String sql = "SELECT TABLE_NAME, COLUMN_NAME, DATA_TYPE, CHARACTER_MAXIMUM_LENGTH, NUMERIC_PRECISION,"
+                    + " NUMERIC_SCALE, IS_NULLABLE FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = ? AND TABLE_NAME IN (" + in + ")";
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                bindTables(ps, schema, names);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        String tableName = rs.getString(1);
+                        TableMeta table = tables.computeIfAbsent(lower(tableName), k -> new TableMeta());
+                        table.name = tableName;
+                        ColumnMeta column = new ColumnMeta();
+                        column.dataType = normalizeType(rs.getString(3));
+                        long charLength = rs.getLong(4);
+                        column.length = rs.wasNull() ? rs.getLong(5) : charLength;
+                        column.scale = rs.getInt(6);
+                        column.nullable = "YES".equalsIgnoreCase(rs.getString(7));
+                        table.columns.put(lower(rs.getString(2)), column);
+                    }
+                }
+            }
+            fetchIndexes(connection, schema, names, tables);
+        }
+        return tables;
+    }
+
+    private static void fetchIndexes(Connection connection, String schema, List<String> tableNames,
+                                     Map<String, TableMeta> tables) throws SQLException {
+        String in = String.join(", ", Collections.nCopies(tableNames.size(), "?"));
+        String sql = "SELECT TABLE_NAME, COLUMN_NAME FROM information_schema.STATISTICS"
+                + " WHERE TABLE_SCHEMA = ? AND TABLE_NAME IN (" + in + ") AND SEQ_IN_INDEX = 1";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            bindTables(ps, schema, tableNames);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    TableMeta table = tables.get(lower(rs.getString(1)));
+                    if (table != null) {
+                        table.indexLeadingColumns.add(lower(rs.getString(2)));
+                    }
+                }
+            }
+            return;
+        } catch (SQLException e) {
+            // 没有information_schema.STATISTICS的数据库，退回逐表查询
+        }
+        DatabaseMetaData metaData = connection.getMetaData();
+        for (TableMeta table : tables.values()) {
+            try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), schema, table.name, false, true)) {
+                while (rs.next()) {
+                    if (rs.getShort("ORDINAL_POSITION") == 1 && rs.getString("COLUMN_NAME") != null) {
+                        table.indexLeadingColumns.add(lower(rs.getString("COLUMN_NAME")));
+                    }
+                }
+            }
+        }
+    }
+
+    private static void bindTables(PreparedStatement ps, String schema, List<String> tableNames) throws SQLException {
+        ps.setString(1, schema);
+        for (int i = 0; i < tableNames.size(); i++) {
+            ps.setString(i + 2, tableNames.get(i));
+        }
+    }
+
+    /**
+     * 表名及其小写、大写形式。未加引号的表名在不同数据库中可能被转为大写(如H2)或小写，
+     * 以IN列出各种形式而不是对TABLE_NAME使用函数，查询information_schema时仍可按表名查找
+     */
+    private static List<String> nameVariants(List<String> tableNames) {
+        Set<String> names = new LinkedHashSet<>();
+        for (String tableName : tableNames) {
+            names.add(tableName);
+            names.add(tableName.toLowerCase(Locale.ROOT));
+            names.add(tableName.toUpperCase(Locale.ROOT));
+        }
+        return new ArrayList<>(names);
+    }
+
+    private static String normalizeType(String dataType) {
+        String type = lower(dataType);
+        return typeAliases.getOrDefault(type, type);
+    }
+
+    private static String lower(String s) {
+        return s != null ? s.toLowerCase(Locale.ROOT) : null;
+    }
+}
@@ -0,0 +1,97 @@
+package com.sunnysuperman.sqlgenerator.idea;
+
+import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.TableColumn;
+import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.TableDefinition;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 按关联关系(@ManyToOne/@OneToOne)对表做拓扑排序，被关联的表排在前面
+ */
+public class TableDependencySorter {
+
+    protected TableDependencySorter() {
+    }
+
+    /**
+     * 将表分批：每批内的表互不依赖，可并行执行；后一批只依赖前面各批的表。
+     * 存在循环依赖的表无法排序，统一放在最后一批。
+     *
+     * @param defs 表定义
+     * @return 分批后的表定义，批内保持原有顺序
+     */
+    public static List<List<TableDefinition>> sort(List<TableDefinition> defs) {
+        Map<String, TableDefinition> defByEntity = new HashMap<>();
+        for (TableDefinition def : defs) {
+            defByEntity.put(def.getEntityClassName(), def);
+        }
+        // 每张表依赖的表，只考虑本次生成范围内的表，忽略自关联
+        Map<TableDefinition, Set<TableDefinition>> dependencies = new LinkedHashMap<>();
+        for (TableDefinition def : defs) {
+            Set<TableDefinition> dependsOn = new LinkedHashSet<>();
+            for (TableColumn column : def.getColumns()) {
+                if (!column.isRelation()) {
+                    continue;
+                }
+                TableDefinition target = defByEntity.get(column.getFieldType());
+                if (target != null && target != def) {
+                    dependsOn.add(target);
+                }
+            }
+            dependencies.put(def, dependsOn);
+        }
+
+        // 按层剥离入度为0的表(Kahn算法)
+        Map<TableDefinition, List<TableDefinition>> dependents = new HashMap<>();
+        Map<TableDefinition, Integer> remaining = new HashMap<>();
+        Map<TableDefinition, Integer> order = new HashMap<>();
+        List<TableDefinition> batch = new ArrayList<>();
+        for (Map.Entry<TableDefinition, Set<TableDefinition>> entry : dependencies.entrySet()) {
+            remaining.put(entry.getKey(), entry.getValue().size());
+            order.put(entry.getKey(), order.size());
+            if (entry.getValue().isEmpty()) {
+                batch.add(entry.getKey());
+            }
+            for (TableDefinition target : entry.getValue()) {
+                dependents.computeIfAbsent(target, k -> new ArrayList<>()).add(entry.getKey());
+            }
+        }
+        List<List<TableDefinition>> batches = new ArrayList<>();
+        Set<TableDefinition> sorted = new HashSet<>();
+        while (!batch.isEmpty()) {
+            batches.add(batch);
+            sorted.addAll(batch);
+            List<TableDefinition> next = new ArrayList<>();
+            for (TableDefinition def : batch) {
+                for (TableDefinition dependent : dependents.getOrDefault(def, Collections.emptyList())) {
+                    if (remaining.merge(dependent, -1, Integer::sum) == 0) {
+                        next.add(dependent);
+                    }
+                }
+            }
+            // 批内保持原有顺序
+            next.sort(Comparator.comparingInt(order::get));
+            batch = next;
+        }
+        // 循环依赖
+        List<TableDefinition> cyclic = new ArrayList<>();
+        for (TableDefinition def : dependencies.keySet()) {
+            if (!sorted.contains(def)) {
+                cyclic.add(def);
+            }
+        }
+        if (!cyclic.isEmpty()) {
+            batches.add(cyclic);
+        }
+        return batches;
+    }
+}
@@ -0,0 +1,231 @@
+package com.sunnysuperman.sqlgenerator.idea;
+
+import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.TableColumn;
+import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.TableDefinition;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 根据表定义生成写入语句常量类：批量插入、upsert及乐观锁更新语句，与实体类位于同一个包
+ */
+public class WriteStatementGenerator {
+
+    // upsert中引用待插入行的别名
+    private static final String ROW_ALIAS = "new";
+    // MySQL预编译语句最多65535个参数
+    static final int MAX_PLACEHOLDERS = 65535;
+
+    protected WriteStatementGenerator() {
+    }
+
+    public static String statementsClassName(TableDefinition def, String packageName) {
+        return StringUtil.replaceAll(RowMapperGenerator.entitySimpleName(def, packageName), ".", StringUtil.EMPTY)
+                + "Statements";
+    }
+
+    /**
+     * 生成写入语句常量类源码。批量语句按batchSize生成常量，末批不足batchSize行时调用insertBatch(rows)等方法生成
+     *
+     * @param def         表定义
+     * @param packageName 实体类所在包
+     * @param batchSize   批量写入语句每批的行数，参数总数超过MySQL上限时减少到上限以内
+     * @return Java源码
+     */
+    public static String generate(TableDefinition def, String packageName, int batchSize) {
+        String entityType = RowMapperGenerator.entitySimpleName(def, packageName);
+        String className = statementsClassName(def, packageName);
+        String table = '`' + def.getName() + '`';
+        TableColumn idColumn = def.getColumns().stream().filter(TableColumn::isPrimary).findAny().orElse(null);
+        TableColumn versionColumn = def.getColumns().stream().filter(TableColumn::isVersionControl).findAny().orElse(null);
+        List<TableColumn> insertColumns = insertColumns(def);
+        List<TableColumn> updateColumns = updateColumns(def);
+        boolean hasUpsert = hasUpsert(def);
+        int maxBatchSize = maxBatchSize(def);
+
+        StringBuilder code = new StringBuilder();
+        if (StringUtil.isNotEmpty(packageName)) {
+            code.append("package ").append(packageName).append(";\n\n");
+        }
+        code.append("/**\n");
+        code.append(" * {@link ").append(entityType).append("}的写入语句");
+        if (StringUtil.isNotEmpty(def.getComment())) {
+            code.append('(').append(escapeDoc(def.getComment())).append(')');
+        }
+        code.append("，由sql-generator根据实体类生成，请勿手动修改，实体类变更后重新生成即可\n");
+        code.append(" */\n");
+        code.append("public final class ").append(className).append(" {\n\n");
+        code.append("    public static final String TABLE = \"").append(escape(def.getName())).append("\";\n\n");
+        if (batchSize > maxBatchSize) {
+            appendDoc(code, "批量语句每批的行数。设置为" + batchSize + "行，每行" + batchRowParams(def)
+                    + "个参数时超过MySQL每条语句" + MAX_PLACEHOLDERS + "个参数的上限，已减少为" + maxBatchSize + "行");
+        } else {
+            appendDoc(code, "批量语句每批的行数");
+        }
+        code.append("    public static final int BATCH_SIZE = ").append(Math.min(batchSize, maxBatchSize)).append(";\n\n");
+
+        code.append("    private static final String INSERT_PREFIX = \"").append("INSERT INTO ").append(escape(table))
+                .append(" (").append(escape(columnList(insertColumns, def))).append(") VALUES \";\n\n");
+        code.append("    private static final String INSERT_ROW = \"").append(placeholders(insertColumns.size())).append("\";\n\n");
+        appendDoc(code, "插入参数: " + paramList(insertColumns) + "，用行映射器的bindInsert绑定");
+        code.append("    public static final String INSERT = INSERT_PREFIX + INSERT_ROW;\n\n");
+        appendDoc(code, "批量插入BATCH_SIZE行，逐行调用bindInsert(ps, entity, offset)绑定，offset为其返回值");
+        code.append("    public static final String INSERT_BATCH = insertBatch(BATCH_SIZE);\n\n");
+
+        if (hasUpsert) {
+            // upsert须带上主键才能命中已有记录，自增主键传null时由数据库生成
+            StringBuilder onDuplicate = new StringBuilder(" AS ").append(ROW_ALIAS).append(" ON DUPLICATE KEY UPDATE ");
+            for (TableColumn column : updateColumns) {
+                String name = '`' + SQLGenerator.columnName(column, def) + '`';
+                onDuplicate.append(name).append(" = ").append(ROW_ALIAS).append('.').append(name).append(", ");
+            }
+            if (versionColumn != null) {
+                onDuplicate.append(versionIncrement(versionColumn, def)).append(", ");
+            }
+            onDuplicate.setLength(onDuplicate.length() - 2);
+            code.append("    private static final String UPSERT_PREFIX = \"").append("INSERT INTO ").append(escape(table))
+                    .append(" (").append(escape(columnList(def.getColumns(), def))).append(") VALUES \";\n\n");
+            code.append("    private static final String UPSERT_ROW = \"").append(placeholders(def.getColumns().size())).append("\";\n\n");
+            // 以行别名引用新值，VALUES(col)写法自MySQL 8.0.20起已废弃
+            code.append("    private static final String UPSERT_SUFFIX = \"").append(escape(onDuplicate.toString())).append("\";\n\n");
+            appendDoc(code, "upsert参数: " + paramList(def.getColumns()) + "，用行映射器的bindUpsert绑定。使用行别名引用新值，须MySQL 8.0.19及以上");
+            code.append("    public static final String UPSERT = UPSERT_PREFIX + UPSERT_ROW + UPSERT_SUFFIX;\n\n");
+            appendDoc(code, "批量upsert BATCH_SIZE行，逐行调用bindUpsert(ps, entity, offset)绑定，offset为其返回值");
+            code.append("    public static final String UPSERT_BATCH = upsertBatch(BATCH_SIZE);\n\n");
+        }
+
+        if (hasUpdate(def)) {
+            String idCondition = '`' + SQLGenerator.columnName(idColumn, def) + "` = ?";
+            StringBuilder update = new StringBuilder("UPDATE ").append(table).append(" SET ");
+            for (TableColumn column : updateColumns) {
+                update.append('`').append(SQLGenerator.columnName(column, def)).append("` = ?, ");
+            }
+            if (versionColumn == null) {
+                update.setLength(update.length() - 2);
+                update.append(" WHERE ").append(idCondition);
+                appendDoc(code, "更新参数: " + paramList(updateParams(def)) + "，用行映射器的bindUpdate绑定");
+                code.append("    public static final String UPDATE = \"").append(escape(update.toString())).append("\";\n\n");
+            } else {
+                update.append(versionIncrement(versionColumn, def)).append(" WHERE ").append(idCondition).append(" AND `")
+                        .append(SQLGenerator.columnName(versionColumn, def)).append("` = ?");
+                appendDoc(code, "更新参数: " + paramList(updateParams(def)) + "(更新前的版本号)，用行映射器的bindUpdate绑定，影响行数为0表示版本冲突");
+                code.append("    public static final String UPDATE_WITH_VERSION = \"").append(escape(update.toString()))
+                        .append("\";\n\n");
+            }
+        }
+
+        code.append("    private ").append(className).append("() {\n");
+        code.append("    }\n\n");
+        appendDoc(code, "批量插入rows行，rows不超过" + maxBatchSize);
+        code.append("    public static String insertBatch(int rows) {\n");
+        code.append("        return INSERT_PREFIX + rows(INSERT_ROW, rows);\n");
+        code.append("    }\n\n");
+        if (hasUpsert) {
+            appendDoc(code, "批量upsert rows行，rows不超过" + maxBatchSize);
+            code.append("    public static String upsertBatch(int rows) {\n");
+            code.append("        return UPSERT_PREFIX + rows(UPSERT_ROW, rows) + UPSERT_SUFFIX;\n");
+            code.append("    }\n\n");
+        }
+        code.append("    private static String rows(String row, int rows) {\n");
+        code.append("        StringBuilder sql = new StringBuilder((row.length() + 2) * rows);\n");
+        code.append("        for (int i = 0; i < rows; i++) {\n");
+        code.append("            if (i > 0) {\n");
+        code.append("                sql.append(\", \");\n");
+        code.append("            }\n");
+        code.append("            sql.append(row);\n");
+        code.append("        }\n");
+        code.append("        return sql.toString();\n");
+        code.append("    }\n");
+        code.append("}\n");
+        return code.toString();
+    }
+
+    /**
+     * 插入语句的列，自增主键由数据库生成，不参与插入
+     */
+    static List<TableColumn> insertColumns(TableDefinition def) {
+        return def.getColumns().stream().filter(i -> !i.isAutoIncrement()).collect(Collectors.toList());
+    }
+
+    /**
+     * 更新语句SET的列，主键和版本号不随普通字段更新
+     */
+    static List<TableColumn> updateColumns(TableDefinition def) {
+        return def.getColumns().stream().filter(i -> !i.isPrimary() && !i.isVersionControl()).collect(Collectors.toList());
+    }
+
+    /**
+     * 更新语句的参数：SET的列、主键，有版本号时再加更新前的版本号
+     */
+    static List<TableColumn> updateParams(TableDefinition def) {
+        List<TableColumn> params = updateColumns(def);
+        def.getColumns().stream().filter(TableColumn::isPrimary).findAny().ifPresent(params::add);
+        def.getColumns().stream().filter(TableColumn::isVersionControl).findAny().ifPresent(params::add);
+        return params;
+    }
+
+    /**
+     * upsert须带上主键才能命中已有记录
+     */
+    static boolean hasUpsert(TableDefinition def) {
+        return def.getColumns().stream().anyMatch(TableColumn::isPrimary)
+                && (!updateColumns(def).isEmpty() || def.getColumns().stream().anyMatch(TableColumn::isVersionControl));
+    }
+
+    /**
+     * 每条批量语句最多的行数，使参数总数不超过MySQL的上限
+     */
+    static int maxBatchSize(TableDefinition def) {
+        return Math.max(1, MAX_PLACEHOLDERS / Math.max(1, batchRowParams(def)));
+    }
+
+    // 批量插入及批量upsert中每行较多的参数数
+    private static int batchRowParams(TableDefinition def) {
+        return hasUpsert(def) ? def.getColumns().size() : insertColumns(def).size();
+    }
+
+    static boolean hasUpdate(TableDefinition def) {
+        return def.getColumns().stream().anyMatch(TableColumn::isPrimary) && !updateColumns(def).isEmpty();
+    }
+
+    private static void appendDoc(StringBuilder code, String doc) {
+        code.append("    /**\n");
+        code.append("     * ").append(escapeDoc(doc)).append('\n');
+        code.append("     */\n");
+    }
+
+    private static String versionIncrement(TableColumn versionColumn, TableDefinition def) {
+        String name = '`' + SQLGenerator.columnName(versionColumn, def) + '`';
+        return name + " = " + name + " + 1";
+    }
+
+    private static String columnList(List<TableColumn> columns, TableDefinition def) {
+        return columns.stream().map(column -> '`' + SQLGenerator.columnName(column, def) + '`')
+                .collect(Collectors.joining(", "));
+    }
+
+    private static String paramList(List<TableColumn> columns) {
+        return columns.stream().map(TableColumn::getJavaName).collect(Collectors.joining(", "));
+    }
+
+    private static String placeholders(int size) {
+        StringBuilder buf = new StringBuilder(size * 3 + 2).append('(');
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                buf.append(", ");
+            }
+            buf.append('?');
+        }
+        return buf.append(')').toString();
+    }
+
+    // Java字符串字面量转义
+    private static String escape(String s) {
+        return StringUtil.replaceAll(StringUtil.replaceAll(s, "\\", "\\\\"), "\"", "\\\"");
+    }
+
+    // 避免注释内容提前结束文档注释
+    private static String escapeDoc(String s) {
+        return StringUtil.replaceAll(s, "*/", "*&#47;");
+    }
+}
@@ -0,0 +1,24 @@
+package com.sunnysuperman.sqlgenerator.idea;
+
+import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.TableDefinition;
+
+/**
+ * 为实体类生成写入语句常量类：批量插入、upsert及乐观锁更新语句
+ */
+public class WriteStatementGeneratorHandler extends JavaSourceGeneratorHandler {
+
+    @Override
+    protected String className(TableDefinition def, String packageName) {
+        return WriteStatementGenerator.statementsClassName(def, packageName);
+    }
+
+    @Override
+    protected String generate(TableDefinition def, String packageName) {
+        return WriteStatementGenerator.generate(def, packageName, SQLGeneratorSettings.getBatchSize());
+    }
+
+    @Override
+    protected String getKind() {
+        return "写入语句类";
+    }
+}
@@ -0,0 +1,42 @@
+package com.sunnysuperman.sqlgenerator.idea;
+
+import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.TableDefinition;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static com.sunnysuperman.sqlgenerator.idea.TableFixtures.column;
+import static com.sunnysuperman.sqlgenerator.idea.TableFixtures.declaredColumn;
+import static com.sunnysuperman.sqlgenerator.idea.TableFixtures.primaryKey;
+import static com.sunnysuperman.sqlgenerator.idea.TableFixtures.table;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ColumnarSQLGeneratorTest {
+
+    @Test
+    public void convertsDeclaredColumnTypes() {
+        TableDefinition def = table("t_order", primaryKey(),
+                declaredColumn("createdAt", "long", "`created_at` DATETIME(3) NOT NULL,", "KEY `idx_created_at` (`created_at`)"),
+                declaredColumn("amount", "long", "`amount` DECIMAL(12,2) DEFAULT NULL"),
+                declaredColumn("tags", String.class.getName(), "`tags` SET('a','b') NOT NULL"),
+                column("updatedAt", "long"));
+        String sql = ColumnarSQLGenerator.generate(def, Collections.singletonList("createdAt"));
+        assertTrue(sql.contains("`created_at` DateTime64(3) COMMENT '' CODEC(DoubleDelta, ZSTD(1))"), sql);
+        assertTrue(sql.contains("`amount` Nullable(Decimal(12, 2))"), sql);
+        assertTrue(sql.contains("`updated_at` Nullable(Int64)"), sql);
+        assertTrue(sql.startsWith("-- 列`tags`声明的类型无法转换为ClickHouse类型，未包含在分析库中: `tags` SET('a','b') NOT NULL\n"), sql);
+        assertFalse(sql.contains("  `tags`"), sql);
+        assertFalse(sql.contains("idx_created_at"), sql);
+        assertTrue(sql.contains("PARTITION BY toYYYYMM(`created_at`)\nORDER BY (`created_at`, `id`)"), sql);
+    }
+
+    @Test
+    public void keepsNotNullOfDeclaredColumns() {
+        TableDefinition def = table("t_user", primaryKey(), declaredColumn("name", String.class.getName(),
+                "`name` VARCHAR(64) NOT NULL"), declaredColumn("score", "int", "`score` INT UNSIGNED NOT NULL"));
+        String sql = ColumnarSQLGenerator.generate(def, Collections.emptyList());
+        assertTrue(sql.contains("`name` String COMMENT '' CODEC(ZSTD(3))"), sql);
+        assertTrue(sql.contains("`score` UInt32 COMMENT '' CODEC(T64, ZSTD(1))"), sql);
+    }
+}
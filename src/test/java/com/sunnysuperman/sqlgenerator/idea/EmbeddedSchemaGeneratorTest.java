@@ -0,0 +1,105 @@
+package com.sunnysuperman.sqlgenerator.idea;
+
+import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.TableColumn;
+import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.TableDefinition;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static com.sunnysuperman.sqlgenerator.idea.TableFixtures.column;
+import static com.sunnysuperman.sqlgenerator.idea.TableFixtures.declaredColumn;
+import static com.sunnysuperman.sqlgenerator.idea.TableFixtures.execute;
+import static com.sunnysuperman.sqlgenerator.idea.TableFixtures.h2Url;
+import static com.sunnysuperman.sqlgenerator.idea.TableFixtures.table;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 声明了columnDefinition的字段转换为H2语法后须能在MySQL兼容模式的H2中执行
+ */
+public class EmbeddedSchemaGeneratorTest {
+
+    @Test
+    public void translatesDeclaredColumnsAndKeys() throws Exception {
+        TableColumn id = declaredColumn("id", "long", "`id` BIGINT NOT NULL AUTO_INCREMENT COMMENT \"ID\"");
+        id.setPrimary(true);
+        TableColumn name = declaredColumn("name", String.class.getName(),
+                "`name` VARCHAR(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin NOT NULL COMMENT \"名称\",",
+                "UNIQUE KEY `uk_name` (`name`(32))");
+        TableColumn owner = column("owner", "long");
+        owner.setRelation(true);
+        TableColumn createdAt = declaredColumn("createdAt", "long",
+                "`created_at` DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) COMMENT '创建时间'",
+                "KEY `idx_owner` (`owner`, `created_at`) USING BTREE");
+        TableColumn tags = declaredColumn("tags", "java.util.List", "`tags` JSON DEFAULT NULL");
+        TableColumn body = declaredColumn("body", String.class.getName(), "`body` TEXT", "FULLTEXT KEY `ft_body` (`body`)");
+        TableDefinition def = table("t_article", id, name, owner, createdAt, tags, body);
+
+        String sql = EmbeddedSchemaGenerator.generate(def);
+
+        assertEquals("CREATE TABLE \"t_article\" (\n"
+                + "  \"id\" BIGINT NOT NULL AUTO_INCREMENT,\n"
+                + "  \"name\" VARCHAR(64) NOT NULL,\n"
+                + "  \"owner\" BIGINT,\n"
+                + "  \"created_at\" DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),\n"
+                + "  \"tags\" VARCHAR DEFAULT NULL,\n"
+                + "  \"body\" TEXT,\n"
+                + "  PRIMARY KEY (\"id\")\n"
+                + ");\n"
+                + "CREATE UNIQUE INDEX \"t_article_uk_name\" ON \"t_article\" (\"name\");\n"
+                + "CREATE INDEX \"t_article_idx_owner\" ON \"t_article\" (\"owner\", \"created_at\");\n"
+                + "-- H2不支持FULLTEXT索引，已忽略: FULLTEXT KEY `ft_body` (`body`)", sql);
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:embedded;MODE=MySQL;DATABASE_TO_LOWER=TRUE");
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+            statement.execute("INSERT INTO t_article (name, owner) VALUES ('a', 1)");
+            // 声明的唯一索引生效
+            assertThrows(SQLException.class, () -> statement.execute("INSERT INTO t_article (name, owner) VALUES ('a', 2)"));
+            try (ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES"
+                    + " WHERE TABLE_NAME = 't_article' AND INDEX_NAME = 't_article_idx_owner'")) {
+                assertTrue(rs.next());
+                assertEquals(1, rs.getInt(1));
+            }
+        }
+    }
+
+    @Test
+    public void keepsDeclaredPrimaryKey() throws Exception {
+        TableColumn id = declaredColumn("id", String.class.getName(), "`id` CHAR(36) CHARACTER SET ascii COLLATE ascii_bin NOT NULL",
+                "PRIMARY KEY (`id`)");
+        id.setPrimary(true);
+        String sql = EmbeddedSchemaGenerator.generate(table("t_token", id));
+        assertEquals("CREATE TABLE \"t_token\" (\n  \"id\" CHAR(36) NOT NULL,\n  PRIMARY KEY (\"id\")\n);", sql);
+    }
+
+    @Test
+    public void quotesUnquotedIdentifiers() throws Exception {
+        TableColumn id = declaredColumn("id", "long", "id BIGINT NOT NULL AUTO_INCREMENT", "PRIMARY KEY (id)");
+        id.setPrimary(true);
+        TableColumn name = declaredColumn("name", String.class.getName(), "name VARCHAR(64) NOT NULL",
+                "KEY idx_name (name(10), id DESC)");
+        String sql = EmbeddedSchemaGenerator.generate(table("t_tag", id, name));
+        assertEquals("CREATE TABLE \"t_tag\" (\n"
+                + "  \"id\" BIGINT NOT NULL AUTO_INCREMENT,\n"
+                + "  PRIMARY KEY (\"id\"),\n"
+                + "  \"name\" VARCHAR(64) NOT NULL\n"
+                + ");\n"
+                + "CREATE INDEX \"t_tag_idx_name\" ON \"t_tag\" (\"name\", \"id\" DESC);", sql);
+        execute(h2Url("embedded_unquoted"), sql);
+    }
+
+    @Test
+    public void failsOnUntranslatableDefinition() {
+        TableColumn id = column("id", "long");
+        id.setPrimary(true);
+        TableColumn flags = declaredColumn("flags", String.class.getName(), "`flags` SET('a', 'b') NOT NULL");
+        SQLGenerationException ex = assertThrows(SQLGenerationException.class,
+                () -> EmbeddedSchemaGenerator.generate(table("t_flag", id, flags)));
+        assertEquals("表t_flag的columnDefinition无法转换为H2语法: `flags` SET('a', 'b') NOT NULL", ex.getMessage());
+    }
+}
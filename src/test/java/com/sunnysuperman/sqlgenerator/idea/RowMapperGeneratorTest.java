@@ -0,0 +1,47 @@
+package com.sunnysuperman.sqlgenerator.idea;
+
+import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.TableColumn;
+import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.TableDefinition;
+import org.junit.jupiter.api.Test;
+
+import java.util.Enumeration;
+
+import static com.sunnysuperman.sqlgenerator.idea.TableFixtures.column;
+import static com.sunnysuperman.sqlgenerator.idea.TableFixtures.primaryKey;
+import static com.sunnysuperman.sqlgenerator.idea.TableFixtures.table;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RowMapperGeneratorTest {
+
+    @Test
+    public void readsEnumsFromCachedValues() {
+        String code = RowMapperGenerator.generate(taskTable(), "test");
+        assertTrue(code.contains("    private static final test.Priority[] TASK_PRIORITY_VALUES = test.Priority.values();\n"), code);
+        assertTrue(code.contains("entity.setTaskPriority(TASK_PRIORITY_VALUES[v2]);"), code);
+        assertFalse(code.contains(".values()["), code);
+    }
+
+    @Test
+    public void detectsStaleMapper() {
+        TableDefinition def = taskTable();
+        String code = RowMapperGenerator.generate(def, "test");
+        assertTrue(code.contains("    public static final String DEFINITION_HASH = \"" + RowMapperGenerator.definitionHash(def) + "\";\n"));
+        assertFalse(RowMapperGenerator.isStale(code, def));
+
+        // 注释不影响生成的代码
+        def.getColumns().get(1).setComment("优先级");
+        assertFalse(RowMapperGenerator.isStale(code, def));
+
+        def.getColumns().add(column("title", String.class.getName(), 64));
+        assertTrue(RowMapperGenerator.isStale(code, def));
+        assertTrue(RowMapperGenerator.isStale(code.replaceAll(".*DEFINITION_HASH.*\n", ""), taskTable()));
+    }
+
+    private static TableDefinition taskTable() {
+        TableColumn priority = column("taskPriority", Enumeration.class.getName());
+        priority.setFieldType("test.Priority");
+        priority.setEnumConstants(new String[]{"LOW", "HIGH"});
+        return table("t_task", primaryKey(), priority);
+    }
+}
@@ -0,0 +1,57 @@
+package com.sunnysuperman.sqlgenerator.idea;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiPackage;
+import com.intellij.testFramework.fixtures.LightJavaCodeInsightFixtureTestCase;
+
+import java.util.List;
+
+/**
+ * 按包生成的端到端性能回归测试。阈值可通过系统属性调整，如 -Dsqlgenerator.perf.minThroughput=200
+ */
+public class SQLGeneratorPerformanceTest extends LightJavaCodeInsightFixtureTestCase {
+    private static final Logger LOG = Logger.getInstance(SQLGeneratorPerformanceTest.class);
+    private static final int PACKAGES = Integer.getInteger("sqlgenerator.perf.packages", 40);
+    private static final int ENTITIES_PER_PACKAGE = Integer.getInteger("sqlgenerator.perf.entitiesPerPackage", 50);
+    // 每秒至少处理的实体数
+    private static final int MIN_THROUGHPUT = Integer.getInteger("sqlgenerator.perf.minThroughput", 100);
+    // 单次读锁最长持有时间(毫秒)
+    private static final int MAX_READ_LOCK_MILLIS = Integer.getInteger("sqlgenerator.perf.maxReadLockMillis", 1000);
+
+    @Override
+    protected String getTestDataPath() {
+        return "src/test/testData";
+    }
+
+    public void testGoldenOutput() throws SQLGenerationException {
+        SyntheticProject.create(myFixture, 3, 3);
+        List<String> sqlList = generate(new GenerationStats());
+        assertSameLinesWithFile(getTestDataPath() + "/golden/synthetic.sql", String.join("\n\n", sqlList));
+    }
+
+    public void testThroughput() throws SQLGenerationException {
+        SyntheticProject.create(myFixture, PACKAGES, ENTITIES_PER_PACKAGE);
+        // 统计从此刻开始，不含生成合成项目的时间
+        GenerationStats stats = new GenerationStats();
+        List<String> sqlList = generate(stats);
+        stats.finish();
+        LOG.info("SQLGeneratorPerformanceTest: " + stats);
+
+        int entityCount = PACKAGES * ENTITIES_PER_PACKAGE;
+        assertEquals(entityCount, stats.getEntityCount());
+        assertEquals(entityCount, sqlList.size());
+        // 每个包只关联前面的包，每个包为一批
+        assertEquals(PACKAGES, sqlList.stream().filter(sql -> sql.startsWith("-- 第")).count());
+        assertTrue("吞吐量低于" + MIN_THROUGHPUT + "/s: " + stats, stats.getThroughput() >= MIN_THROUGHPUT);
+        assertTrue("单次读锁持有超过" + MAX_READ_LOCK_MILLIS + "ms: " + stats,
+                stats.getReadLockMaxMillis() <= MAX_READ_LOCK_MILLIS);
+    }
+
+    private List<String> generate(GenerationStats stats) throws SQLGenerationException {
+        PsiPackage root = JavaPsiFacade.getInstance(getProject()).findPackage(SyntheticProject.ROOT_PACKAGE);
+        assertNotNull(root);
+        return new SQLGeneratorHandler().generatePackage(root, new EmptyProgressIndicator(), stats);
+    }
+}
@@ -0,0 +1,54 @@
+package com.sunnysuperman.sqlgenerator.idea;
+
+import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.TableColumn;
+import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.TableDefinition;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static com.sunnysuperman.sqlgenerator.idea.TableFixtures.column;
+import static com.sunnysuperman.sqlgenerator.idea.TableFixtures.table;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SQLGeneratorTest {
+
+    @Test
+    public void storesStringKeysAsAscii() {
+        String sql = SQLGenerator.generate(table("t_token", stringKey("id", SQLGenerator.DEFAULT_STRING_KEY_LENGTH, true),
+                stringKey("parent", SQLGenerator.DEFAULT_STRING_KEY_LENGTH, false)));
+        assertTrue(sql.contains("`id` CHAR(36) CHARACTER SET ascii COLLATE ascii_bin NOT NULL"), sql);
+        assertTrue(sql.contains("`parent` CHAR(36) CHARACTER SET ascii COLLATE ascii_bin DEFAULT NULL"), sql);
+    }
+
+    @Test
+    public void usesVarcharForKeysLongerThanCharLimit() {
+        String sql = SQLGenerator.generate(table("t_document", stringKey("id", 300, true), stringKey("parent", 300, false)));
+        assertTrue(sql.contains("`id` VARCHAR(300) CHARACTER SET ascii COLLATE ascii_bin NOT NULL"), sql);
+        assertTrue(sql.contains("`parent` VARCHAR(300) CHARACTER SET ascii COLLATE ascii_bin DEFAULT NULL"), sql);
+        assertTrue(sql.contains("主键`id`占300字节"), sql);
+    }
+
+    @Test
+    public void warnsAboutRandomUuidUnlessDeclaredVersion1() {
+        TableColumn id = column("id", UUID.class.getName());
+        id.setPrimary(true);
+        id.setNullable(false);
+        TableDefinition def = table("t_event", id);
+        assertTrue(SQLGenerator.generate(def).contains("随机UUID(如UUID.randomUUID()生成的版本4 UUID)会导致聚簇索引频繁页分裂"));
+        def.setUuidTimeOrdered(true);
+        assertFalse(SQLGenerator.generate(def).contains("随机UUID"));
+    }
+
+    private static TableColumn stringKey(String javaName, int length, boolean primary) {
+        TableColumn column = column(javaName, String.class.getName(), length);
+        if (primary) {
+            column.setPrimary(true);
+            column.setNullable(false);
+        } else {
+            column.setRelation(true);
+            column.setValueJavaName("id");
+        }
+        return column;
+    }
+}
@@ -0,0 +1,134 @@
+package com.sunnysuperman.sqlgenerator.idea;
+
+import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.TableColumn;
+import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.TableDefinition;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.sunnysuperman.sqlgenerator.idea.TableFixtures.column;
+import static com.sunnysuperman.sqlgenerator.idea.TableFixtures.declaredColumn;
+import static com.sunnysuperman.sqlgenerator.idea.TableFixtures.execute;
+import static com.sunnysuperman.sqlgenerator.idea.TableFixtures.h2Url;
+import static com.sunnysuperman.sqlgenerator.idea.TableFixtures.primaryKey;
+import static com.sunnysuperman.sqlgenerator.idea.TableFixtures.table;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 在MySQL兼容模式的H2内存库上检查表结构差异
+ */
+public class SchemaDriftDetectorTest {
+
+    @Test
+    public void noDriftAgainstEmbeddedSchema() throws Exception {
+        String url = h2Url("drift_clean");
+        List<TableDefinition> defs = Arrays.asList(userTable(), orderTable());
+        for (TableDefinition def : defs) {
+            execute(url, EmbeddedSchemaGenerator.generate(def));
+        }
+        assertEquals(Collections.emptyList(), SchemaDriftDetector.detect(() -> DriverManager.getConnection(url), defs, 2));
+    }
+
+    @Test
+    public void matchesUpperCaseTableNames() throws Exception {
+        // 未加引号的表名和列名在H2中存为大写
+        String url = h2Url("drift_upper");
+        List<TableDefinition> defs = Arrays.asList(userTable(), orderTable());
+        for (TableDefinition def : defs) {
+            execute(url, StringUtil.replaceAll(EmbeddedSchemaGenerator.generate(def), "\"", StringUtil.EMPTY));
+        }
+        assertEquals(Collections.emptyList(), SchemaDriftDetector.detect(() -> DriverManager.getConnection(url), defs, 2));
+    }
+
+    @Test
+    public void reportsEachDriftCategory() throws SQLException {
+        String url = h2Url("drift_categories");
+        execute(url, "CREATE TABLE t_user (id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY, email VARCHAR(128),"
+                + " balance DECIMAL(10, 2), profile VARCHAR(1000), status TINYINT)");
+        execute(url, "CREATE TABLE t_order (id BIGINT NOT NULL, owner BIGINT, amount INT)");
+        List<TableDefinition> defs = Arrays.asList(userTable(), orderTable(), table("t_missing", primaryKey()));
+
+        List<String> report = SchemaDriftDetector.detect(() -> DriverManager.getConnection(url), defs, 2);
+
+        assertEquals(Arrays.asList(
+                "表`t_user`列`email`长度不一致: 期望64，实际128",
+                "表`t_user`列`email`可空性不一致: 期望NOT NULL，实际NULL",
+                "表`t_user`缺少列`nickname`",
+                "表`t_user`列`balance`精度不一致: 期望(20,2)，实际(10,2)",
+                "表`t_order`列`amount`类型不一致: 期望bigint，实际int",
+                "表`t_order`缺少索引(`owner`)",
+                "表`t_order`缺少主键(`id`)",
+                "表`t_missing`不存在"), report);
+    }
+
+    @Test
+    public void reportsMissingDeclaredIndexes() throws Exception {
+        String url = h2Url("drift_declared_keys");
+        execute(url, EmbeddedSchemaGenerator.generate(eventTable()));
+        assertEquals(Collections.emptyList(),
+                SchemaDriftDetector.detect(() -> DriverManager.getConnection(url), Collections.singletonList(eventTable()), 1));
+
+        String bareUrl = h2Url("drift_declared_keys_bare");
+        execute(bareUrl, "CREATE TABLE t_event (id BIGINT NOT NULL PRIMARY KEY, code VARCHAR(32) NOT NULL,"
+                + " created_at DATETIME(3) NOT NULL)");
+        assertEquals(Arrays.asList(
+                "表`t_event`缺少索引(`code`)",
+                "表`t_event`缺少索引(`created_at`)"),
+                SchemaDriftDetector.detect(() -> DriverManager.getConnection(bareUrl), Collections.singletonList(eventTable()), 1));
+    }
+
+    @Test
+    public void fetchesTablesInParallelBatches() throws SQLException {
+        String url = h2Url("drift_batches");
+        int tableCount = SchemaDriftDetector.TABLES_PER_BATCH * 2 + 100;
+        List<TableDefinition> defs = new ArrayList<>(tableCount);
+        try (Connection connection = DriverManager.getConnection(url); Statement statement = connection.createStatement()) {
+            for (int i = 0; i < tableCount; i++) {
+                statement.execute("CREATE TABLE t_batch_" + i + " (id BIGINT NOT NULL PRIMARY KEY, name VARCHAR(32))");
+                defs.add(table("t_batch_" + i, primaryKey(), column("name", String.class.getName(), 32)));
+            }
+        }
+        AtomicInteger connections = new AtomicInteger();
+        List<String> report = SchemaDriftDetector.detect(() -> {
+            connections.incrementAndGet();
+            return DriverManager.getConnection(url);
+        }, defs, 4);
+        assertEquals(Collections.emptyList(), report);
+        // 每批一个连接，而不是每张表一次查询
+        assertEquals(3, connections.get());
+    }
+
+    private static TableDefinition userTable() {
+        TableColumn email = column("email", String.class.getName(), 64);
+        email.setNullable(false);
+        TableColumn status = column("status", Enumeration.class.getName());
+        status.setEnumConstants(new String[]{"ACTIVE", "DISABLED"});
+        return table("t_user", primaryKey(), email, column("nickname", String.class.getName(), 32),
+                column("balance", BigDecimal.class.getName()), column("profile", Map.class.getName()), status);
+    }
+
+    private static TableDefinition eventTable() {
+        return table("t_event", primaryKey(),
+                declaredColumn("code", String.class.getName(), "`code` VARCHAR(32) NOT NULL,", "UNIQUE KEY `uk_code` (`code`)"),
+                declaredColumn("createdAt", "long", "`created_at` DATETIME(3) NOT NULL,",
+                        "KEY `idx_created_at` (`created_at`, `code`)"));
+    }
+
+    private static TableDefinition orderTable() {
+        TableColumn owner = column("owner", "long");
+        owner.setRelation(true);
+        owner.setValueJavaName("id");
+        return table("t_order", primaryKey(), owner, column("amount", "long"));
+    }
+}
@@ -0,0 +1,91 @@
+package com.sunnysuperman.sqlgenerator.idea;
+
+import com.intellij.testFramework.fixtures.CodeInsightTestFixture;
+
+/**
+ * 在测试项目中生成合成的实体类：每个包内的实体继承深度不同的基类链，
+ * 并通过@ManyToOne关联前面两个包中的实体，生成时按包分批
+ */
+final class SyntheticProject {
+    static final String ROOT_PACKAGE = "synthetic";
+
+    // 基类链，每层增加一个字段
+    private static final String[] BASE_FIELDS = {
+            "    @Column(comment = \"创建时间\")\n    private long createdAt;\n",
+            "    @Column(comment = \"更新时间\")\n    private long updatedAt;\n",
+            "    @Column(length = 32, comment = \"创建人\")\n    private String createdBy;\n",
+            "    @Column(nullable = false, comment = \"是否删除\")\n    private boolean deleted;\n",
+            "    @VersionControl\n    @Column(comment = \"版本号\")\n    private int version;\n"
+    };
+
+    private SyntheticProject() {
+    }
+
+    static void create(CodeInsightTestFixture fixture, int packages, int entitiesPerPackage) {
+        // ss-repository注解
+        fixture.copyDirectoryToProject("repository", "");
+        fixture.addFileToProject(ROOT_PACKAGE + "/base/Status.java", "package " + ROOT_PACKAGE + ".base;\n\n"
+                + "public enum Status {\n    DRAFT, ACTIVE, ARCHIVED\n}\n");
+        for (int level = 0; level < BASE_FIELDS.length; level++) {
+            fixture.addFileToProject(ROOT_PACKAGE + "/base/Level" + level + ".java", baseSource(level));
+        }
+        for (int p = 0; p < packages; p++) {
+            for (int k = 0; k < entitiesPerPackage; k++) {
+                fixture.addFileToProject(ROOT_PACKAGE + "/m" + p + "/" + entityName(p, k) + ".java", entitySource(p, k));
+            }
+        }
+    }
+
+    private static String baseSource(int level) {
+        StringBuilder code = new StringBuilder();
+        code.append("package ").append(ROOT_PACKAGE).append(".base;\n\n");
+        code.append("import com.sunnysuperman.repository.annotation.Column;\n");
+        code.append("import com.sunnysuperman.repository.annotation.VersionControl;\n\n");
+        code.append("public class Level").append(level);
+        if (level > 0) {
+            code.append(" extends Level").append(level - 1);
+        }
+        code.append(" {\n").append(BASE_FIELDS[level]).append("}\n");
+        return code.toString();
+    }
+
+    private static String entitySource(int p, int k) {
+        int level = (p + k) % BASE_FIELDS.length;
+        StringBuilder code = new StringBuilder();
+        code.append("package ").append(ROOT_PACKAGE).append(".m").append(p).append(";\n\n");
+        code.append("import com.sunnysuperman.repository.annotation.Column;\n");
+        code.append("import com.sunnysuperman.repository.annotation.Entity;\n");
+        code.append("import com.sunnysuperman.repository.annotation.Id;\n");
+        code.append("import com.sunnysuperman.repository.annotation.IdStrategy;\n");
+        code.append("import com.sunnysuperman.repository.annotation.ManyToOne;\n");
+        code.append("import com.sunnysuperman.repository.annotation.Table;\n");
+        code.append("import ").append(ROOT_PACKAGE).append(".base.Level").append(level).append(";\n");
+        code.append("import ").append(ROOT_PACKAGE).append(".base.Status;\n\n");
+        code.append("@Entity\n");
+        code.append("@Table(name = \"e").append(p).append('_').append(k).append("\", comment = \"实体").append(p).append('-')
+                .append(k).append("\")\n");
+        code.append("public class ").append(entityName(p, k)).append(" extends Level").append(level).append(" {\n");
+        code.append("    @Id(strategy = IdStrategy.INCREMENT)\n    @Column(comment = \"ID\")\n    private Long id;\n\n");
+        code.append("    @Column(length = 64, nullable = false, comment = \"名称\")\n    private String name;\n\n");
+        code.append("    @Column(comment = \"金额\")\n    private long amount;\n\n");
+        code.append("    @Column(comment = \"状态\")\n    private Status status;\n");
+        if (p > 0) {
+            code.append("\n    @ManyToOne\n    @Column(comment = \"上级\")\n    private ").append(entityType(p - 1, k))
+                    .append(" parent;\n");
+        }
+        if (p > 1) {
+            code.append("\n    @ManyToOne\n    @Column(comment = \"来源\")\n    private ").append(entityType(p - 2, k))
+                    .append(" origin;\n");
+        }
+        code.append("}\n");
+        return code.toString();
+    }
+
+    private static String entityType(int p, int k) {
+        return ROOT_PACKAGE + ".m" + p + "." + entityName(p, k);
+    }
+
+    private static String entityName(int p, int k) {
+        return "E" + p + "_" + k;
+    }
+}
@@ -0,0 +1,77 @@
+package com.sunnysuperman.sqlgenerator.idea;
+
+import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.TableColumn;
+import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.TableDefinition;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * 不经过PSI解析，直接构造表定义，并提供MySQL兼容模式的H2内存库
+ */
+final class TableFixtures {
+
+    private TableFixtures() {
+    }
+
+    static TableColumn column(String javaName, String javaType) {
+        return column(javaName, javaType, 0);
+    }
+
+    static TableColumn column(String javaName, String javaType, int length) {
+        TableColumn column = new TableColumn();
+        column.setJavaName(javaName);
+        column.setJavaType(javaType);
+        column.setFieldType(javaType);
+        column.setNullable(true);
+        column.setLength(length);
+        column.setPrecision(2);
+        return column;
+    }
+
+    /**
+     * 通过columnDefinition声明的字段
+     */
+    static TableColumn declaredColumn(String javaName, String javaType, String... columnDefinition) {
+        TableColumn column = column(javaName, javaType);
+        column.setColumnDefinition(columnDefinition);
+        return column;
+    }
+
+    /**
+     * 自增的long主键id
+     */
+    static TableColumn primaryKey() {
+        TableColumn id = column("id", "long");
+        id.setPrimary(true);
+        id.setAutoIncrement(true);
+        id.setNullable(false);
+        return id;
+    }
+
+    static TableDefinition table(String name, TableColumn... columns) {
+        TableDefinition def = new TableDefinition();
+        def.setName(name);
+        def.setEntityClassName("test." + name);
+        def.setMapCamelToUnderscore(true);
+        def.setColumns(new ArrayList<>(Arrays.asList(columns)));
+        return def;
+    }
+
+    /**
+     * 内存库在最后一个连接关闭后仍然保留，同一测试内可多次连接
+     */
+    static String h2Url(String database) {
+        return "jdbc:h2:mem:" + database + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+    }
+
+    static void execute(String url, String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
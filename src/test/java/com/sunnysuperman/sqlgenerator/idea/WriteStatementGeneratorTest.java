@@ -0,0 +1,108 @@
+package com.sunnysuperman.sqlgenerator.idea;
+
+import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.TableColumn;
+import com.sunnysuperman.sqlgenerator.idea.SQLGenerator.TableDefinition;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+
+import static com.sunnysuperman.sqlgenerator.idea.TableFixtures.column;
+import static com.sunnysuperman.sqlgenerator.idea.TableFixtures.execute;
+import static com.sunnysuperman.sqlgenerator.idea.TableFixtures.h2Url;
+import static com.sunnysuperman.sqlgenerator.idea.TableFixtures.primaryKey;
+import static com.sunnysuperman.sqlgenerator.idea.TableFixtures.table;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 编译生成的写入语句常量类及行映射器，在H2中执行，检查各语句与绑定方法的参数一一对应
+ */
+public class WriteStatementGeneratorTest {
+    private static final String PACKAGE = "bind";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void bindsGeneratedStatements() throws Exception {
+        TableDefinition def = articleTable();
+        Path source = dir.resolve(PACKAGE);
+        Files.createDirectories(source);
+        Files.write(source.resolve("ArticleRowMapper.java"),
+                RowMapperGenerator.generate(def, PACKAGE).getBytes(StringUtil.UTF8_CHARSET));
+        Files.write(source.resolve("ArticleStatements.java"),
+                WriteStatementGenerator.generate(def, PACKAGE, 3).getBytes(StringUtil.UTF8_CHARSET));
+        List<String> args = new ArrayList<>(Arrays.asList("-encoding", "UTF-8", "-d", dir.toString()));
+        for (String name : Arrays.asList("Article", "Status", "Scenario", "ArticleRowMapper", "ArticleStatements")) {
+            Path file = source.resolve(name + ".java");
+            if (!Files.exists(file)) {
+                file = Paths.get("src/test/testData", PACKAGE, name + ".java");
+            }
+            args.add(file.toString());
+        }
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertEquals(0, compiler.run(null, null, null, args.toArray(new String[0])));
+
+        // H2将反引号中的名称转为大写，与生成的脚本头部建议的连接串一致
+        String url = h2Url("write_statements") + ";DATABASE_TO_LOWER=TRUE";
+        execute(url, EmbeddedSchemaGenerator.generate(def));
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{dir.toUri().toURL()}, getClass().getClassLoader());
+             Connection connection = DriverManager.getConnection(url)) {
+            Object result = loader.loadClass(PACKAGE + ".Scenario").getMethod("run", Connection.class).invoke(null, connection);
+            assertEquals(Arrays.asList(
+                    "insert 3",
+                    "update 1",
+                    "update 0",
+                    "1 a1-upserted PUBLISHED 100 1",
+                    "2 a2-updated PUBLISHED 200 1",
+                    "3 a3 DRAFT 3 0",
+                    "10 a10 DRAFT 10 0"), result);
+        }
+    }
+
+    @Test
+    public void capsBatchSizeAtPlaceholderLimit() {
+        TableColumn[] columns = new TableColumn[70];
+        columns[0] = primaryKey();
+        for (int i = 1; i < columns.length; i++) {
+            columns[i] = column("c" + i, "int");
+        }
+        TableDefinition def = table("t_wide", columns);
+        // 65535 / 70
+        assertEquals(936, WriteStatementGenerator.maxBatchSize(def));
+        String code = WriteStatementGenerator.generate(def, PACKAGE, 1000);
+        assertTrue(code.contains("    public static final int BATCH_SIZE = 936;\n"));
+        assertTrue(code.contains("设置为1000行，每行70个参数时超过MySQL每条语句65535个参数的上限，已减少为936行"));
+        assertTrue(WriteStatementGenerator.generate(def, PACKAGE, 500).contains("    public static final int BATCH_SIZE = 500;\n"));
+    }
+
+    private static TableDefinition articleTable() {
+        TableColumn id = primaryKey();
+        id.setJavaType(Long.class.getName());
+        id.setFieldType(Long.class.getName());
+        TableColumn status = column("status", Enumeration.class.getName());
+        status.setFieldType(PACKAGE + ".Status");
+        status.setEnumConstants(new String[]{"DRAFT", "PUBLISHED"});
+        TableColumn hits = column("hits", "long");
+        hits.setNullable(false);
+        TableColumn version = column("version", "int");
+        version.setNullable(false);
+        version.setVersionControl(true);
+        TableDefinition def = table("t_article", id, column("title", String.class.getName(), 64), status, hits, version);
+        def.setEntityClassName(PACKAGE + ".Article");
+        return def;
+    }
+}
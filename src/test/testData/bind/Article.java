@@ -0,0 +1,65 @@
+package bind;
+
+public class Article {
+    private Long id;
+    private String title;
+    private Status status;
+    private long hits;
+    private int version;
+
+    public Article() {
+    }
+
+    public Article(Long id, String title, Status status, long hits, int version) {
+        this.id = id;
+        this.title = title;
+        this.status = status;
+        this.hits = hits;
+        this.version = version;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    @Override
+    public String toString() {
+        return id + " " + title + " " + status + " " + hits + " " + version;
+    }
+}
@@ -0,0 +1,49 @@
+package bind;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 用生成的写入语句及行映射器的绑定方法写入，返回影响行数及按id排序读出的行
+ */
+public class Scenario {
+
+    public static List<String> run(Connection connection) throws SQLException {
+        ArticleRowMapper mapper = new ArticleRowMapper();
+        List<String> result = new ArrayList<>();
+        // 批量插入，自增主键不绑定
+        try (PreparedStatement ps = connection.prepareStatement(ArticleStatements.INSERT_BATCH)) {
+            int offset = 0;
+            for (int i = 1; i <= ArticleStatements.BATCH_SIZE; i++) {
+                offset = mapper.bindInsert(ps, new Article(null, "a" + i, Status.DRAFT, i, 0), offset);
+            }
+            result.add("insert " + ps.executeUpdate());
+        }
+        // H2不支持行别名，换成VALUES(col)写法，参数顺序不变
+        String upsert = ArticleStatements.upsertBatch(2).replace(" AS new ON ", " ON ")
+                .replaceAll("new\\.(`\\w+`)", "VALUES($1)");
+        try (PreparedStatement ps = connection.prepareStatement(upsert)) {
+            int offset = mapper.bindUpsert(ps, new Article(1L, "a1-upserted", Status.PUBLISHED, 100, 0), 0);
+            mapper.bindUpsert(ps, new Article(10L, "a10", Status.DRAFT, 10, 0), offset);
+            ps.executeUpdate();
+        }
+        // 乐观锁更新，第二次使用过期的版本号
+        for (int i = 0; i < 2; i++) {
+            try (PreparedStatement ps = connection.prepareStatement(ArticleStatements.UPDATE_WITH_VERSION)) {
+                mapper.bindUpdate(ps, new Article(2L, "a2-updated", Status.PUBLISHED, 200, 0));
+                result.add("update " + ps.executeUpdate());
+            }
+        }
+        try (PreparedStatement ps = connection.prepareStatement("SELECT " + ArticleRowMapper.COLUMNS + " FROM `"
+                + ArticleRowMapper.TABLE + "` ORDER BY `id`"); ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                result.add(mapper.map(rs).toString());
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,5 @@
+package bind;
+
+public enum Status {
+    DRAFT, PUBLISHED
+}
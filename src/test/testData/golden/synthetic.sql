@@ -0,0 +1,119 @@
+-- 第1批，共3张表，可并行执行
+CREATE TABLE `e0_0` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT 'ID',
+  `created_at` BIGINT DEFAULT NULL COMMENT '创建时间',
+  `name` VARCHAR(64) NOT NULL COMMENT '名称',
+  `amount` BIGINT DEFAULT NULL COMMENT '金额',
+  `status` TINYINT DEFAULT NULL COMMENT '状态',
+  PRIMARY KEY (`id`)
+) ENGINE = InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET = utf8mb4 COMMENT = '实体0-0';
+
+CREATE TABLE `e0_1` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT 'ID',
+  `created_at` BIGINT DEFAULT NULL COMMENT '创建时间',
+  `updated_at` BIGINT DEFAULT NULL COMMENT '更新时间',
+  `name` VARCHAR(64) NOT NULL COMMENT '名称',
+  `amount` BIGINT DEFAULT NULL COMMENT '金额',
+  `status` TINYINT DEFAULT NULL COMMENT '状态',
+  PRIMARY KEY (`id`)
+) ENGINE = InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET = utf8mb4 COMMENT = '实体0-1';
+
+CREATE TABLE `e0_2` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT 'ID',
+  `created_at` BIGINT DEFAULT NULL COMMENT '创建时间',
+  `updated_at` BIGINT DEFAULT NULL COMMENT '更新时间',
+  `created_by` VARCHAR(32) DEFAULT NULL COMMENT '创建人',
+  `name` VARCHAR(64) NOT NULL COMMENT '名称',
+  `amount` BIGINT DEFAULT NULL COMMENT '金额',
+  `status` TINYINT DEFAULT NULL COMMENT '状态',
+  PRIMARY KEY (`id`)
+) ENGINE = InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET = utf8mb4 COMMENT = '实体0-2';
+
+-- 第2批，共3张表，可并行执行
+CREATE TABLE `e1_0` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT 'ID',
+  `created_at` BIGINT DEFAULT NULL COMMENT '创建时间',
+  `updated_at` BIGINT DEFAULT NULL COMMENT '更新时间',
+  `name` VARCHAR(64) NOT NULL COMMENT '名称',
+  `amount` BIGINT DEFAULT NULL COMMENT '金额',
+  `status` TINYINT DEFAULT NULL COMMENT '状态',
+  `parent` BIGINT DEFAULT NULL COMMENT '上级',
+  PRIMARY KEY (`id`),
+  KEY `idx_parent` (`parent`)
+) ENGINE = InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET = utf8mb4 COMMENT = '实体1-0';
+
+CREATE TABLE `e1_1` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT 'ID',
+  `created_at` BIGINT DEFAULT NULL COMMENT '创建时间',
+  `updated_at` BIGINT DEFAULT NULL COMMENT '更新时间',
+  `created_by` VARCHAR(32) DEFAULT NULL COMMENT '创建人',
+  `name` VARCHAR(64) NOT NULL COMMENT '名称',
+  `amount` BIGINT DEFAULT NULL COMMENT '金额',
+  `status` TINYINT DEFAULT NULL COMMENT '状态',
+  `parent` BIGINT DEFAULT NULL COMMENT '上级',
+  PRIMARY KEY (`id`),
+  KEY `idx_parent` (`parent`)
+) ENGINE = InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET = utf8mb4 COMMENT = '实体1-1';
+
+CREATE TABLE `e1_2` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT 'ID',
+  `created_at` BIGINT DEFAULT NULL COMMENT '创建时间',
+  `updated_at` BIGINT DEFAULT NULL COMMENT '更新时间',
+  `created_by` VARCHAR(32) DEFAULT NULL COMMENT '创建人',
+  `deleted` BIT NOT NULL COMMENT '是否删除',
+  `name` VARCHAR(64) NOT NULL COMMENT '名称',
+  `amount` BIGINT DEFAULT NULL COMMENT '金额',
+  `status` TINYINT DEFAULT NULL COMMENT '状态',
+  `parent` BIGINT DEFAULT NULL COMMENT '上级',
+  PRIMARY KEY (`id`),
+  KEY `idx_parent` (`parent`)
+) ENGINE = InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET = utf8mb4 COMMENT = '实体1-2';
+
+-- 第3批，共3张表，可并行执行
+CREATE TABLE `e2_0` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT 'ID',
+  `created_at` BIGINT DEFAULT NULL COMMENT '创建时间',
+  `updated_at` BIGINT DEFAULT NULL COMMENT '更新时间',
+  `created_by` VARCHAR(32) DEFAULT NULL COMMENT '创建人',
+  `name` VARCHAR(64) NOT NULL COMMENT '名称',
+  `amount` BIGINT DEFAULT NULL COMMENT '金额',
+  `status` TINYINT DEFAULT NULL COMMENT '状态',
+  `parent` BIGINT DEFAULT NULL COMMENT '上级',
+  `origin` BIGINT DEFAULT NULL COMMENT '来源',
+  PRIMARY KEY (`id`),
+  KEY `idx_parent` (`parent`),
+  KEY `idx_origin` (`origin`)
+) ENGINE = InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET = utf8mb4 COMMENT = '实体2-0';
+
+CREATE TABLE `e2_1` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT 'ID',
+  `created_at` BIGINT DEFAULT NULL COMMENT '创建时间',
+  `updated_at` BIGINT DEFAULT NULL COMMENT '更新时间',
+  `created_by` VARCHAR(32) DEFAULT NULL COMMENT '创建人',
+  `deleted` BIT NOT NULL COMMENT '是否删除',
+  `name` VARCHAR(64) NOT NULL COMMENT '名称',
+  `amount` BIGINT DEFAULT NULL COMMENT '金额',
+  `status` TINYINT DEFAULT NULL COMMENT '状态',
+  `parent` BIGINT DEFAULT NULL COMMENT '上级',
+  `origin` BIGINT DEFAULT NULL COMMENT '来源',
+  PRIMARY KEY (`id`),
+  KEY `idx_parent` (`parent`),
+  KEY `idx_origin` (`origin`)
+) ENGINE = InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET = utf8mb4 COMMENT = '实体2-1';
+
+CREATE TABLE `e2_2` (
+  `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT 'ID',
+  `created_at` BIGINT DEFAULT NULL COMMENT '创建时间',
+  `updated_at` BIGINT DEFAULT NULL COMMENT '更新时间',
+  `created_by` VARCHAR(32) DEFAULT NULL COMMENT '创建人',
+  `deleted` BIT NOT NULL COMMENT '是否删除',
+  `version` INT NOT NULL COMMENT '版本号',
+  `name` VARCHAR(64) NOT NULL COMMENT '名称',
+  `amount` BIGINT DEFAULT NULL COMMENT '金额',
+  `status` TINYINT DEFAULT NULL COMMENT '状态',
+  `parent` BIGINT DEFAULT NULL COMMENT '上级',
+  `origin` BIGINT DEFAULT NULL COMMENT '来源',
+  PRIMARY KEY (`id`),
+  KEY `idx_parent` (`parent`),
+  KEY `idx_origin` (`origin`)
+) ENGINE = InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET = utf8mb4 COMMENT = '实体2-2';
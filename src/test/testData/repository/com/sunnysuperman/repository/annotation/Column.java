@@ -0,0 +1,15 @@
+package com.sunnysuperman.repository.annotation;
+
+public @interface Column {
+    String name() default "";
+
+    String comment() default "";
+
+    boolean nullable() default true;
+
+    int length() default 255;
+
+    int precision() default 2;
+
+    String[] columnDefinition() default {};
+}
@@ -0,0 +1,5 @@
+package com.sunnysuperman.repository.annotation;
+
+public @interface Id {
+    IdStrategy strategy() default IdStrategy.NONE;
+}
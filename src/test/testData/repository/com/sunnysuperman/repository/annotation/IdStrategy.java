@@ -0,0 +1,5 @@
+package com.sunnysuperman.repository.annotation;
+
+public enum IdStrategy {
+    NONE, INCREMENT
+}
@@ -0,0 +1,9 @@
+package com.sunnysuperman.repository.annotation;
+
+public @interface Table {
+    String name();
+
+    String comment() default "";
+
+    boolean mapCamelToUnderscore() default true;
+}
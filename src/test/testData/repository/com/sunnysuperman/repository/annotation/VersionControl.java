@@ -0,0 +1,4 @@
+package com.sunnysuperman.repository.annotation;
+
+public @interface VersionControl {
+}